@@ -0,0 +1,114 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.rainbow.solar.model.DailyElectricity;
+import org.rainbow.solar.rest.dto.HourlyElectricityDto;
+import org.rainbow.solar.rest.dto.PanelDto;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Measures the cost of reading the pages returned by the APIs, with an object
+ * mapper configured the way the {@link org.springframework.web.client.RestTemplate}
+ * of the tests configures its own.
+ * 
+ * @author biya-bi
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeserializationBenchmark {
+
+	private static final String BASE_URI = "http://localhost:8080/api/panels/";
+
+	@Param({ "10", "100", "1000" })
+	public int size;
+
+	private ObjectReader panelsReader;
+	private ObjectReader hourlyElectricitiesReader;
+	private ObjectReader dailyElectricitiesReader;
+
+	private byte[] panels;
+	private byte[] hourlyElectricities;
+	private byte[] dailyElectricities;
+
+	@Setup
+	public void setup() {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		panelsReader = objectMapper.readerFor(new TypeReference<List<PanelDto>>() {
+		});
+		hourlyElectricitiesReader = objectMapper.readerFor(new TypeReference<List<HourlyElectricityDto>>() {
+		});
+		dailyElectricitiesReader = objectMapper.readerFor(new TypeReference<List<DailyElectricity>>() {
+		});
+
+		StringBuilder b = new StringBuilder("[");
+		for (int i = 1; i <= size; i++) {
+			String uri = BASE_URI + i;
+			b.append(String.format("{\"serial\":\"%d\",\"latitude\":70.650001,\"longitude\":72.512351,"
+					+ "\"brand\":\"canadiansolar\",\"unitOfMeasure\":\"KW\",\"uri\":\"%s\",\"hourlyUri\":\"%s/hourly\","
+					+ "\"dailyUri\":\"%s/daily\",\"hourlyCountUri\":\"%s/hourly/count\"}", 100000 + i, uri, uri, uri,
+					uri)).append(i < size ? "," : "]");
+		}
+		panels = b.toString().getBytes(StandardCharsets.UTF_8);
+
+		LocalDateTime readingAt = LocalDate.now().atStartOfDay();
+		b = new StringBuilder("[");
+		for (int i = 1; i <= size; i++) {
+			b.append(String.format("{\"generatedElectricity\":%d,\"readingAt\":\"%s\",\"uri\":\"%s1/hourly/%d\"}",
+					500 + i % 1000, readingAt.minusHours(i), BASE_URI, i)).append(i < size ? "," : "]");
+		}
+		hourlyElectricities = b.toString().getBytes(StandardCharsets.UTF_8);
+
+		LocalDate today = LocalDate.now();
+		b = new StringBuilder("[");
+		for (int i = 1; i <= size; i++) {
+			b.append(String.format(
+					"{\"date\":\"%s\",\"sum\":4700,\"average\":1175.0,\"min\":975,\"max\":1500}",
+					today.minusDays(i))).append(i < size ? "," : "]");
+		}
+		dailyElectricities = b.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public List<PanelDto> read_Panels() throws IOException {
+		return panelsReader.readValue(panels);
+	}
+
+	@Benchmark
+	public List<HourlyElectricityDto> read_HourlyElectricities() throws IOException {
+		return hourlyElectricitiesReader.readValue(hourlyElectricities);
+	}
+
+	@Benchmark
+	public List<DailyElectricity> read_DailyElectricities() throws IOException {
+		return dailyElectricitiesReader.readValue(dailyElectricities);
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.rainbow.solar.rest.util.JsonHttpEntityBuilder;
+import org.springframework.http.HttpEntity;
+
+/**
+ * Measures the cost of building the request entities sent by the tests.
+ * 
+ * @author biya-bi
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonHttpEntityBuilderBenchmark {
+
+	@Benchmark
+	public HttpEntity<Object> build_Panel() {
+		return new JsonHttpEntityBuilder().setProperty("serial", "232323").setProperty("latitude", 54.123232)
+				.setProperty("longitude", 54.123232).setProperty("brand", "tesla").setProperty("unitOfMeasure", "KW")
+				.build();
+	}
+
+	@Benchmark
+	public HttpEntity<Object> build_HourlyElectricity() {
+		return new JsonHttpEntityBuilder().setProperty("generatedElectricity", "500")
+				.setProperty("readingAt", "2018-08-01T10:00:00").build();
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.rainbow.solar.rest.util.RegexUtil;
+
+/**
+ * Measures the cost of checking the URIs returned by the APIs.
+ * 
+ * @author biya-bi
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegexUtilBenchmark {
+
+	// Fields rather than constants, so that the JIT cannot fold the calls.
+	private String pattern = "/api/panels/2/hourly/";
+	private String matchingUri = "http://localhost:8080/api/panels/2/hourly/1742";
+	private String nonMatchingUri = "http://localhost:8080/api/panels/2/daily";
+
+	@Benchmark
+	public boolean endsWithDigit_Match() {
+		return RegexUtil.endsWithDigit(pattern, matchingUri);
+	}
+
+	@Benchmark
+	public boolean endsWithDigit_NoMatch() {
+		return RegexUtil.endsWithDigit(pattern, nonMatchingUri);
+	}
+}
@@ -7,7 +7,6 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -16,7 +15,7 @@ import org.springframework.web.context.WebApplicationContext;
  *
  */
 @RunWith(SpringRunner.class)
-@SpringBootTest
+@SolarIntegrationTest
 public class SolarApplicationTests {
 	@Autowired
 	private WebApplicationContext webApplicationContext;
@@ -0,0 +1,31 @@
+/**
+ *
+ */
+package org.rainbow.solar;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+/**
+ * Boots the application on a random port. Every test class of the suite uses
+ * this same configuration, so that they all share a single cached application
+ * context per JVM.
+ * 
+ * @author biya-bi
+ *
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+public @interface SolarIntegrationTest {
+
+}
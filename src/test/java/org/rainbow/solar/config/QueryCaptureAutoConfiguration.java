@@ -0,0 +1,52 @@
+/**
+ *
+ */
+package org.rainbow.solar.config;
+
+import javax.sql.DataSource;
+
+import org.rainbow.solar.rest.util.QueryCapture;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wraps the data source of the application so that the tests can capture the
+ * SQL statements each API executes, and reports the SQL statistics of each
+ * request in the headers of its response. Both add overhead to every request,
+ * so the load and stress tests turn them off by setting the
+ * <code>solar.test.sql-statistics</code> property to false.
+ *
+ * @author biya-bi
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "solar.test.sql-statistics", havingValue = "true", matchIfMissing = true)
+public class QueryCaptureAutoConfiguration {
+
+	@Bean
+	public static BeanPostProcessor queryCaptureDataSourceWrapper() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+				return bean;
+			}
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+				return bean instanceof DataSource ? QueryCapture.wrap((DataSource) bean) : bean;
+			}
+		};
+	}
+
+	@Bean
+	public FilterRegistrationBean sqlStatisticsFilter() {
+		FilterRegistrationBean registration = new FilterRegistrationBean(new SqlStatisticsFilter());
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+}
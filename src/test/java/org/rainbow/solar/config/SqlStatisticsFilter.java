@@ -0,0 +1,67 @@
+/**
+ *
+ */
+package org.rainbow.solar.config;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.rainbow.solar.rest.util.SqlStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Gives each request a correlation id, taken from the request if the client
+ * sent one, and reports the {@link SqlStatistics} of the request in the headers
+ * of its response. The body of the response is buffered, because the headers
+ * can no longer be set once it has been written.
+ *
+ * @author biya-bi
+ *
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+	private static final String CORRELATION_ID_KEY = "correlationId";
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String correlationId = request.getHeader(SqlStatistics.CORRELATION_ID_HEADER);
+		if (correlationId == null || correlationId.isEmpty()) {
+			correlationId = UUID.randomUUID().toString();
+		}
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+
+		MDC.put(CORRELATION_ID_KEY, correlationId);
+		SqlStatistics.start();
+		try {
+			filterChain.doFilter(request, wrapper);
+		} finally {
+			SqlStatistics statistics = SqlStatistics.stop();
+			MDC.remove(CORRELATION_ID_KEY);
+
+			LOGGER.debug(String.format("%s %s [%s]: %s", request.getMethod(), request.getRequestURI(), correlationId,
+					statistics));
+
+			wrapper.setHeader(SqlStatistics.CORRELATION_ID_HEADER, correlationId);
+			wrapper.setHeader(SqlStatistics.STATEMENT_COUNT_HEADER, String.valueOf(statistics.getStatementCount()));
+			wrapper.setHeader(SqlStatistics.TIME_HEADER,
+					String.valueOf(TimeUnit.NANOSECONDS.toMicros(statistics.getElapsedNanos())));
+			wrapper.setHeader(SqlStatistics.ROWS_FETCHED_HEADER, String.valueOf(statistics.getRowsFetched()));
+			wrapper.setHeader(SqlStatistics.CONNECTION_WAIT_HEADER,
+					String.valueOf(TimeUnit.NANOSECONDS.toMicros(statistics.getConnectionWaitNanos())));
+			wrapper.copyBodyToResponse();
+		}
+	}
+}
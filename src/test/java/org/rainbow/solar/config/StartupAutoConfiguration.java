@@ -0,0 +1,82 @@
+/**
+ *
+ */
+package org.rainbow.solar.config;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.rainbow.solar.rest.util.StartupTimings;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * Shortens and measures the startup of the application context of the tests.
+ *
+ * @author biya-bi
+ *
+ */
+@Configuration
+public class StartupAutoConfiguration {
+
+	/**
+	 * Records the time taken to build the JPA entity manager factory. Hibernate
+	 * reads the entity metadata and runs the DDL while the factory is built, so
+	 * both are part of this phase.
+	 */
+	@Bean
+	public static BeanPostProcessor jpaStartupTimer() {
+		return new BeanPostProcessor() {
+			private final Map<String, Long> starts = new ConcurrentHashMap<>();
+
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+				if (bean instanceof AbstractEntityManagerFactoryBean) {
+					starts.put(beanName, System.nanoTime());
+				}
+				return bean;
+			}
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+				Long start = starts.remove(beanName);
+				if (start != null) {
+					StartupTimings.record("JPA metadata and DDL", System.nanoTime() - start);
+				}
+				return bean;
+			}
+		};
+	}
+
+	/**
+	 * Defers the creation of the application beans until they are first used, so
+	 * that the beans no test uses are never created. Enabled with
+	 * <code>solar.test.lazy-initialization=true</code>.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "solar.test.lazy-initialization", havingValue = "true")
+	public static BeanFactoryPostProcessor lazyInitializationBeanFactoryPostProcessor() {
+		// The schema must exist before the tests load their fixtures, which they do
+		// without going through JPA.
+		Set<String> eagerBeans = new HashSet<>(Arrays.asList("entityManagerFactory"));
+
+		return (ConfigurableListableBeanFactory beanFactory) -> {
+			for (String beanName : beanFactory.getBeanDefinitionNames()) {
+				BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+				if (beanDefinition.getRole() == BeanDefinition.ROLE_APPLICATION && !eagerBeans.contains(beanName)) {
+					beanDefinition.setLazyInit(true);
+				}
+			}
+		};
+	}
+}
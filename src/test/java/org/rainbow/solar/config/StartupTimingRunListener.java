@@ -0,0 +1,52 @@
+/**
+ *
+ */
+package org.rainbow.solar.config;
+
+import org.rainbow.solar.rest.util.StartupTimings;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Records the time taken to prepare the environment and to refresh the
+ * application context of the tests.
+ *
+ * @author biya-bi
+ *
+ */
+public class StartupTimingRunListener implements SpringApplicationRunListener {
+
+	private long environmentStart;
+	private long refreshStart;
+
+	public StartupTimingRunListener(SpringApplication application, String[] args) {
+	}
+
+	@Override
+	public void starting() {
+		environmentStart = System.nanoTime();
+	}
+
+	@Override
+	public void environmentPrepared(ConfigurableEnvironment environment) {
+		StartupTimings.record("environment", System.nanoTime() - environmentStart);
+	}
+
+	@Override
+	public void contextPrepared(ConfigurableApplicationContext context) {
+	}
+
+	@Override
+	public void contextLoaded(ConfigurableApplicationContext context) {
+		refreshStart = System.nanoTime();
+	}
+
+	@Override
+	public void finished(ConfigurableApplicationContext context, Throwable exception) {
+		if (exception == null) {
+			StartupTimings.record("context refresh", System.nanoTime() - refreshStart);
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.controller;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.rainbow.solar.rest.util.JsonHttpEntityBuilder;
+import org.rainbow.solar.rest.util.LoadGenerator;
+import org.rainbow.solar.rest.util.LoadReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * This class sizes the connection pool. For each pool size, it sends
+ * <code>POST /api/panels/{id}/hourly</code> and
+ * <code>GET /api/panels/{id}/daily</code> requests concurrently, doubling the
+ * number of clients until requests fail because they timed out waiting for a
+ * connection. It then reports the latency curve of both APIs and the pool size
+ * that sustained the highest throughput without such timeouts. A request that
+ * fails for any other reason fails the test. It is not part of the
+ * default build; run it with <code>mvn test -Pstress</code>. The pool sizes can
+ * be given as a comma separated list with the
+ * <code>solar.stress.pool-sizes</code> system property, and the time a request
+ * may wait for a connection with <code>solar.stress.connection-timeout</code>
+ * (milliseconds).
+ *
+ * @author biya-bi
+ *
+ */
+public class ConnectionPoolStressTests extends ControllerTests {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPoolStressTests.class);
+
+	// Fragments of the errors reported when a request timed out waiting for a
+	// connection, by HikariCP, Hibernate and Spring respectively.
+	private static final String[] ACQUIRE_TIMEOUT_MARKERS = { "Connection is not available",
+			"Unable to acquire JDBC Connection", "CannotCreateTransactionException" };
+
+	@Autowired
+	private DataSource dataSource;
+
+	private HikariConfigMXBean pool;
+	private int initialMaximumPoolSize;
+	private long initialConnectionTimeout;
+
+	private final AtomicLong acquireTimeoutCount = new AtomicLong();
+	private final AtomicReference<String> otherError = new AtomicReference<>();
+
+	@Before
+	public void setupPool() throws Exception {
+		Assert.assertTrue("The connection pool is not HikariCP.", dataSource.isWrapperFor(HikariDataSource.class));
+		pool = dataSource.unwrap(HikariDataSource.class);
+		initialMaximumPoolSize = pool.getMaximumPoolSize();
+		initialConnectionTimeout = pool.getConnectionTimeout();
+		pool.setConnectionTimeout(Long.getLong("solar.stress.connection-timeout", 250));
+	}
+
+	@After
+	public void cleanupPool() {
+		pool.setMaximumPoolSize(initialMaximumPoolSize);
+		pool.setConnectionTimeout(initialConnectionTimeout);
+	}
+
+	@Test
+	public void createAndGetBeforeToday_IncreasingConcurrency_BestPoolSizeReported() throws Exception {
+		int maxConcurrency = Integer.getInteger("solar.stress.max-concurrency", 256);
+		List<Integer> poolSizes = new ArrayList<>();
+		for (String poolSize : System.getProperty("solar.stress.pool-sizes", "2,4,8,16,32").split(",")) {
+			poolSizes.add(Integer.parseInt(poolSize.trim()));
+		}
+		// The pool only grows while it is in use and never shrinks below the
+		// connections it holds, so the sizes are tried in increasing order.
+		Collections.sort(poolSizes);
+
+		int bestPoolSize = 0;
+		double bestThroughput = 0;
+		for (int poolSize : poolSizes) {
+			// Each size is measured against the same tables, not against those the
+			// hourly creations of the previous sizes grew.
+			restoreDatabase();
+			pool.setMaximumPoolSize(poolSize);
+
+			for (int concurrency = 2; concurrency <= maxConcurrency; concurrency *= 2) {
+				acquireTimeoutCount.set(0);
+				List<LoadReport> reports = run(concurrency);
+
+				Assert.assertNull("A request failed for another reason than a connection timeout: " + otherError.get(),
+						otherError.get());
+				if (acquireTimeoutCount.get() > 0) {
+					LOGGER.info(String.format("Pool of %d connections saturated by %d clients: %d requests timed out.",
+							pool.getMaximumPoolSize(), concurrency, acquireTimeoutCount.get()));
+					break;
+				}
+
+				double throughput = 0;
+				for (LoadReport report : reports) {
+					throughput += report.getThroughput();
+				}
+				if (throughput > bestThroughput) {
+					bestThroughput = throughput;
+					bestPoolSize = pool.getMaximumPoolSize();
+				}
+			}
+		}
+		LOGGER.info(String.format("Best pool size: %d connections (%.1f req/s without connection timeouts).",
+				bestPoolSize, bestThroughput));
+
+		Assert.assertTrue("No pool size sustained the load without connection timeouts.", bestPoolSize > 0);
+	}
+
+	/**
+	 * Sends both requests concurrently, each from half of the clients.
+	 */
+	private List<LoadReport> run(int concurrency) throws Exception {
+		LoadGenerator loadGenerator = new LoadGenerator().setConcurrency(concurrency / 2)
+				.setDuration(Long.getLong("solar.stress.duration", 5), TimeUnit.SECONDS)
+				.setWarmup(Long.getLong("solar.stress.warmup", 1), TimeUnit.SECONDS);
+		String suffix = String.format(" (pool %d, %d clients)", pool.getMaximumPoolSize(), concurrency);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<LoadReport> create = executor.submit(() -> loadGenerator.run("POST /api/panels/{id}/hourly" + suffix,
+					() -> classify(template.postForEntity("/api/panels/2/hourly",
+							new JsonHttpEntityBuilder().setProperty("generatedElectricity", 500)
+									.setProperty("readingAt",
+											LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
+									.build(),
+							String.class))));
+			Future<LoadReport> getBeforeToday = executor.submit(() -> loadGenerator.run(
+					"GET /api/panels/{id}/daily" + suffix,
+					() -> classify(template.exchange("/api/panels/2/daily", HttpMethod.GET, null, String.class))));
+
+			List<LoadReport> reports = new ArrayList<>();
+			reports.add(create.get());
+			reports.add(getBeforeToday.get());
+			return reports;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Counts the failed responses caused by a connection timeout, and records the
+	 * first one caused by anything else. A server error is only put down to a
+	 * timeout if its body names one: requests queuing for a connection at the same
+	 * time do not prove that the error was theirs.
+	 */
+	private ResponseEntity<String> classify(ResponseEntity<String> response) {
+		if (response.getStatusCode().value() < 400) {
+			return response;
+		}
+		String body = String.valueOf(response.getBody());
+		if (response.getStatusCode().is5xxServerError() && isAcquireTimeout(body)) {
+			acquireTimeoutCount.incrementAndGet();
+		} else {
+			otherError.compareAndSet(null, String.format("%s: %s", response.getStatusCode(), body));
+		}
+		return response;
+	}
+
+	private boolean isAcquireTimeout(String body) {
+		for (String marker : ACQUIRE_TIMEOUT_MARKERS) {
+			if (body.contains(marker)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
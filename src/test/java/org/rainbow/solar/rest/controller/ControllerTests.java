@@ -3,15 +3,20 @@
  */
 package org.rainbow.solar.rest.controller;
 
+import java.sql.SQLException;
+
 import javax.sql.DataSource;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TestName;
 import org.junit.runner.RunWith;
+import org.rainbow.solar.SolarIntegrationTest;
+import org.rainbow.solar.rest.util.DatabaseSnapshot;
 import org.rainbow.solar.rest.util.DatabaseUtil;
+import org.rainbow.solar.rest.util.StartupTimings;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -21,9 +26,16 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
  *
  */
 @RunWith(SpringJUnit4ClassRunner.class)
-@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@SolarIntegrationTest
 public abstract class ControllerTests {
-	
+
+	// The fixtures are loaded once per JVM. Afterwards, the tables are restored
+	// from this snapshot whenever a test may have modified them.
+	private static DatabaseSnapshot snapshot;
+
+	@Rule
+	public TestName testName = new TestName();
+
 	@Autowired
 	protected TestRestTemplate template;
 
@@ -32,15 +44,50 @@ public abstract class ControllerTests {
 
 	@Before
 	public void setup() throws Exception {
-		DatabaseUtil.execute(dataSource, new ClassPathResource("sql/delete_from_tables.sql").getFile(),
-				new ClassPathResource("sql/insert_panels.sql").getFile(),
-				new ClassPathResource("sql/insert_hourly_electricities.sql").getFile());
+		if (snapshot == null) {
+			long start = System.nanoTime();
+			DatabaseUtil.execute(dataSource, new ClassPathResource("sql/delete_from_tables.sql"),
+					new ClassPathResource("sql/insert_panels.sql"),
+					new ClassPathResource("sql/insert_hourly_electricities.sql"));
+
+			// The snapshot is only kept once taken, so that a failure is retried by
+			// the next test instead of leaving it to restore from missing tables.
+			DatabaseSnapshot newSnapshot = new DatabaseSnapshot(dataSource, "panel", "hourly_electricity");
+			newSnapshot.take();
+			snapshot = newSnapshot;
+			StartupTimings.record("fixture load", System.nanoTime() - start);
+		} else if (snapshot.isDirty()) {
+			snapshot.restore();
+		}
 	}
 
 	@After
 	public void cleanup() throws Exception {
-		// Each test should clear the panel table to leave it in a state that will not
-		// affect other tests.
-		DatabaseUtil.execute(dataSource, new ClassPathResource("sql/delete_from_tables.sql").getFile());
+		// Each test that may have modified the database leaves it to be restored
+		// before the next test, so that it will not affect other tests.
+		if (snapshot != null && !getClass().getMethod(testName.getMethodName()).isAnnotationPresent(ReadOnly.class)) {
+			snapshot.markDirty();
+		}
+	}
+
+	/**
+	 * Has the tables restored before the next test. Tests that modify the
+	 * database outside of a test method, such as in a {@link org.junit.BeforeClass}
+	 * or an {@link org.junit.AfterClass} method, must call this method.
+	 */
+	protected static void markDatabaseDirty() {
+		if (snapshot != null) {
+			snapshot.markDirty();
+		}
+	}
+
+	/**
+	 * Restores the tables right away, for tests that modify them several times and
+	 * need the same content at the start of each round.
+	 */
+	protected static void restoreDatabase() throws SQLException {
+		if (snapshot != null) {
+			snapshot.restore();
+		}
 	}
 }
@@ -4,6 +4,8 @@
 package org.rainbow.solar.rest.controller;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import org.junit.Assert;
@@ -12,7 +14,9 @@ import org.rainbow.solar.model.DailyElectricity;
 import org.rainbow.solar.rest.err.PanelNotFoundError;
 import org.rainbow.solar.rest.err.SolarErrorCode;
 import org.rainbow.solar.rest.util.ErrorMessagesResourceBundle;
+import org.rainbow.solar.rest.util.JsonHttpEntityBuilder;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +30,7 @@ import org.springframework.http.ResponseEntity;
 public class DailyElectricityControllerTests extends ControllerTests {
 
 	@Test
+	@ReadOnly
 	public void getBeforeToday_PanelIdGiven_DailyElectricitiesReturned() throws Exception {
 		ResponseEntity<List<DailyElectricity>> response = template.exchange("/api/panels/2/daily", HttpMethod.GET, null,
 				new ParameterizedTypeReference<List<DailyElectricity>>() {
@@ -65,6 +70,7 @@ public class DailyElectricityControllerTests extends ControllerTests {
 	}
 
 	@Test
+	@ReadOnly
 	public void getBeforeToday_PanelDoesNotExist_NotFoundErrorReturned() throws Exception {
 		Long panelId = 5000L;
 		String uri = String.format("/api/panels/%s/daily", panelId);
@@ -81,4 +87,117 @@ public class DailyElectricityControllerTests extends ControllerTests {
 		Assert.assertEquals(panelId, error.getId());
 	}
 
+	@Test
+	public void getBeforeToday_HourlyElectricityCreated_DailyElectricityUpdated() throws Exception {
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+
+		HttpEntity<Object> hourlyElectricity = new JsonHttpEntityBuilder().setProperty("generatedElectricity", 300)
+				.setProperty("readingAt", yesterday.atTime(5, 0).format(DateTimeFormatter.ISO_DATE_TIME)).build();
+
+		ResponseEntity<?> response = template.postForEntity("/api/panels/2/hourly", hourlyElectricity, Object.class);
+		Assert.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+
+		DailyElectricity dailyElectricity = getBeforeToday(2L, yesterday);
+		Assert.assertEquals(Long.valueOf(5000), dailyElectricity.getSum());
+		Assert.assertEquals(Double.valueOf(1000), dailyElectricity.getAverage());
+		Assert.assertEquals(Long.valueOf(300), dailyElectricity.getMin());
+		Assert.assertEquals(Long.valueOf(1500), dailyElectricity.getMax());
+	}
+
+	@Test
+	public void getBeforeToday_HourlyElectricityUpdated_DailyElectricityUpdated() throws Exception {
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+
+		HttpEntity<Object> hourlyElectricity = new JsonHttpEntityBuilder().setProperty("generatedElectricity", 2000)
+				.setProperty("readingAt", yesterday.atTime(3, 0).format(DateTimeFormatter.ISO_DATE_TIME)).build();
+
+		ResponseEntity<?> response = template.exchange("/api/panels/2/hourly/22", HttpMethod.PUT, hourlyElectricity,
+				Object.class);
+		Assert.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+
+		DailyElectricity dailyElectricity = getBeforeToday(2L, yesterday);
+		Assert.assertEquals(Long.valueOf(5200), dailyElectricity.getSum());
+		Assert.assertEquals(Double.valueOf(1300), dailyElectricity.getAverage());
+		Assert.assertEquals(Long.valueOf(975), dailyElectricity.getMin());
+		Assert.assertEquals(Long.valueOf(2000), dailyElectricity.getMax());
+	}
+
+	@Test
+	public void getBeforeToday_HourlyElectricityMovedToAnotherDay_BothDailyElectricitiesUpdated() throws Exception {
+		LocalDate today = LocalDate.now();
+		LocalDateTime readingAt = today.minusDays(2).atTime(10, 0);
+
+		HttpEntity<Object> hourlyElectricity = new JsonHttpEntityBuilder().setProperty("generatedElectricity", 1500)
+				.setProperty("readingAt", readingAt.format(DateTimeFormatter.ISO_DATE_TIME)).build();
+
+		ResponseEntity<?> response = template.exchange("/api/panels/2/hourly/22", HttpMethod.PUT, hourlyElectricity,
+				Object.class);
+		Assert.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+
+		DailyElectricity yesterday = getBeforeToday(2L, today.minusDays(1));
+		Assert.assertEquals(Long.valueOf(3200), yesterday.getSum());
+		Assert.assertEquals(Long.valueOf(975), yesterday.getMin());
+		Assert.assertEquals(Long.valueOf(1225), yesterday.getMax());
+
+		DailyElectricity twoDaysAgo = getBeforeToday(2L, today.minusDays(2));
+		Assert.assertEquals(Long.valueOf(4525), twoDaysAgo.getSum());
+		Assert.assertEquals(Double.valueOf(905), twoDaysAgo.getAverage());
+		Assert.assertEquals(Long.valueOf(700), twoDaysAgo.getMin());
+		Assert.assertEquals(Long.valueOf(1500), twoDaysAgo.getMax());
+	}
+
+	@Test
+	public void getBeforeToday_HourlyElectricityDeleted_DailyElectricityUpdated() throws Exception {
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+
+		ResponseEntity<?> response = template.exchange("/api/panels/2/hourly/19", HttpMethod.DELETE, null,
+				Object.class);
+		Assert.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+
+		DailyElectricity dailyElectricity = getBeforeToday(2L, yesterday);
+		Assert.assertEquals(Long.valueOf(3700), dailyElectricity.getSum());
+		Assert.assertEquals(3700 / 3.0, dailyElectricity.getAverage(), 0.01);
+		Assert.assertEquals(Long.valueOf(975), dailyElectricity.getMin());
+		Assert.assertEquals(Long.valueOf(1500), dailyElectricity.getMax());
+	}
+
+	@Test
+	public void getBeforeToday_AllHourlyElectricitiesOfDayDeleted_DayNotReturned() throws Exception {
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+
+		for (long hourlyElectricityId = 19; hourlyElectricityId <= 22; hourlyElectricityId++) {
+			ResponseEntity<?> response = template.exchange("/api/panels/2/hourly/" + hourlyElectricityId,
+					HttpMethod.DELETE, null, Object.class);
+			Assert.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+		}
+
+		List<DailyElectricity> dailyElectricities = getBeforeToday(2L);
+		Assert.assertEquals(2, dailyElectricities.size());
+		for (DailyElectricity dailyElectricity : dailyElectricities) {
+			Assert.assertNotEquals(yesterday, dailyElectricity.getDate());
+		}
+	}
+
+	private List<DailyElectricity> getBeforeToday(Long panelId) {
+		ResponseEntity<List<DailyElectricity>> response = template.exchange(
+				String.format("/api/panels/%s/daily", panelId), HttpMethod.GET, null,
+				new ParameterizedTypeReference<List<DailyElectricity>>() {
+				});
+
+		Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
+		Assert.assertNotNull(response.getBody());
+
+		return response.getBody();
+	}
+
+	private DailyElectricity getBeforeToday(Long panelId, LocalDate date) {
+		for (DailyElectricity dailyElectricity : getBeforeToday(panelId)) {
+			if (date.equals(dailyElectricity.getDate())) {
+				return dailyElectricity;
+			}
+		}
+		Assert.fail(String.format("No daily electricity was returned for the %s.", date));
+		return null;
+	}
+
 }
@@ -0,0 +1,125 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.controller;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.rainbow.solar.model.DailyElectricity;
+import org.rainbow.solar.rest.dto.PanelDto;
+import org.rainbow.solar.rest.util.JsonHttpEntityBuilder;
+import org.rainbow.solar.rest.util.LoadGenerator;
+import org.rainbow.solar.rest.util.LoadReport;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * This class measures the throughput and latency of the most used APIs. It is
+ * not part of the default build; run it with <code>mvn test -Pload</code>. The
+ * load can be tuned with the <code>solar.load.concurrency</code>,
+ * <code>solar.load.duration</code> (seconds), <code>solar.load.warmup</code>
+ * (seconds), <code>solar.load.target-throughput</code> (requests per second,
+ * 0 for a closed workload) and <code>solar.load.max-in-flight</code> (requests
+ * of an open workload waiting for a response) system properties.
+ *
+ * @author biya-bi
+ *
+ */
+public class EndpointLoadTests extends ControllerTests {
+
+	private LoadGenerator loadGenerator;
+
+	@Before
+	public void setupLoadGenerator() {
+		loadGenerator = new LoadGenerator().setConcurrency(Integer.getInteger("solar.load.concurrency", 8))
+				.setDuration(Long.getLong("solar.load.duration", 10), TimeUnit.SECONDS)
+				.setWarmup(Long.getLong("solar.load.warmup", 2), TimeUnit.SECONDS)
+				.setTargetThroughput(Double.parseDouble(System.getProperty("solar.load.target-throughput", "0")))
+				.setMaxInFlight(Integer.getInteger("solar.load.max-in-flight", 1000));
+	}
+
+	@Test
+	public void create_HourlyElectricities_LoadReported() throws Exception {
+		LoadReport report = loadGenerator.run("POST /api/panels/{id}/hourly",
+				() -> template.postForEntity("/api/panels/2/hourly",
+						new JsonHttpEntityBuilder().setProperty("generatedElectricity", 500)
+								.setProperty("readingAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
+								.build(),
+						Object.class));
+
+		assertNoErrors(report);
+	}
+
+	@Test
+	@ReadOnly
+	public void getBeforeToday_DailyElectricities_LoadReported() throws Exception {
+		LoadReport report = loadGenerator.run("GET /api/panels/{id}/daily",
+				() -> template.exchange("/api/panels/2/daily", HttpMethod.GET, null,
+						new ParameterizedTypeReference<List<DailyElectricity>>() {
+						}));
+
+		assertNoErrors(report);
+	}
+
+	@Test
+	@ReadOnly
+	public void get_PanelsPage_LoadReported() throws Exception {
+		LoadReport report = loadGenerator.run("GET /api/panels?page=&size=",
+				() -> template.exchange("/api/panels?page=0&size=3", HttpMethod.GET, null,
+						new ParameterizedTypeReference<List<PanelDto>>() {
+						}));
+
+		assertNoErrors(report);
+	}
+
+	@Test
+	public void create_IncreasingThroughput_SaturationPointReported() throws Exception {
+		assertSaturationPointFound("POST /api/panels/{id}/hourly",
+				() -> template.postForEntity("/api/panels/2/hourly",
+						new JsonHttpEntityBuilder().setProperty("generatedElectricity", 500)
+								.setProperty("readingAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
+								.build(),
+						Object.class));
+	}
+
+	@Test
+	@ReadOnly
+	public void getBeforeToday_IncreasingThroughput_SaturationPointReported() throws Exception {
+		assertSaturationPointFound("GET /api/panels/{id}/daily",
+				() -> template.exchange("/api/panels/2/daily", HttpMethod.GET, null,
+						new ParameterizedTypeReference<List<DailyElectricity>>() {
+						}));
+	}
+
+	@Test
+	@ReadOnly
+	public void get_PanelsPageIncreasingThroughput_SaturationPointReported() throws Exception {
+		assertSaturationPointFound("GET /api/panels?page=&size=",
+				() -> template.exchange("/api/panels?page=0&size=3", HttpMethod.GET, null,
+						new ParameterizedTypeReference<List<PanelDto>>() {
+						}));
+	}
+
+	private void assertSaturationPointFound(String name, Callable<? extends ResponseEntity<?>> request)
+			throws Exception {
+		LoadReport report = loadGenerator.findSaturationPoint(name, request, 50,
+				Double.parseDouble(System.getProperty("solar.load.max-throughput", "20000")), 100,
+				TimeUnit.MILLISECONDS);
+
+		Assert.assertNotNull("The API could not even sustain the initial throughput.", report);
+	}
+
+	private void assertNoErrors(LoadReport report) {
+		Assert.assertTrue(report.getRequestCount() > 0);
+		Assert.assertEquals(report.toString(), 0, report.getErrorCount());
+		Assert.assertEquals(report.toString(), 0, report.getDroppedCount());
+	}
+}
@@ -20,6 +20,7 @@ import org.rainbow.solar.rest.err.SolarErrorCode;
 import org.rainbow.solar.rest.util.ErrorMessagesResourceBundle;
 import org.rainbow.solar.rest.util.JsonHttpEntityBuilder;
 import org.rainbow.solar.rest.util.RegexUtil;
+import org.rainbow.solar.rest.util.SqlStatistics;
 import org.rainbow.solar.service.util.ExceptionMessagesResourceBundle;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -50,6 +51,10 @@ public class HourlyElectricityControllerTests extends ControllerTests {
 
 		Assert.assertNotNull(location);
 		Assert.assertTrue(RegexUtil.endsWithDigit("/api/panels/2/hourly/", location.toString()));
+
+		long[] ids = RegexUtil.extractIds("/api/panels/{panelId}/hourly/{id}", location.toString());
+		Assert.assertNotNull(ids);
+		Assert.assertEquals(2L, ids[0]);
 	}
 
 	@Test
@@ -117,6 +122,21 @@ public class HourlyElectricityControllerTests extends ControllerTests {
 		Assert.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
 	}
 
+	@Test
+	public void update_HourlyElectricityIsValid_AtMostThreeStatementsExecuted() {
+		HttpEntity<Object> hourlyElectricity = new JsonHttpEntityBuilder().setProperty("generatedElectricity", "2000")
+				.setProperty("readingAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME)).build();
+
+		ResponseEntity<?> response = template.exchange("/api/panels/1/hourly/1", HttpMethod.PUT, hourlyElectricity,
+				Object.class);
+
+		Assert.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+
+		// The panel lookup, the hourly electricity lookup and the update.
+		SqlStatistics statistics = SqlStatistics.of(response.getHeaders());
+		Assert.assertTrue(statistics.toString(), statistics.getStatementCount() <= 3);
+	}
+
 	@Test
 	public void update_PanelDoesnotExist_NotFoundErrorReturned() {
 		Long panelId = 5000L;
@@ -283,6 +303,7 @@ public class HourlyElectricityControllerTests extends ControllerTests {
 	}
 
 	@Test
+	@ReadOnly
 	public void getByPanelId_PanelIdGiven_HourlyElectricitiesReturned() throws Exception {
 		// We construct and make a GET request that should return 3 JSON hourly
 		// electricity objects starting from page 0.
@@ -305,6 +326,7 @@ public class HourlyElectricityControllerTests extends ControllerTests {
 	}
 
 	@Test
+	@ReadOnly
 	public void getByPanelId_PanelDoesNotExist_NotFoundErrorReturned() throws Exception {
 		Long panelId = 5000L;
 		String uri = String.format("/api/panels/%s/hourly?page=0&size=3", panelId);
@@ -322,6 +344,7 @@ public class HourlyElectricityControllerTests extends ControllerTests {
 	}
 
 	@Test
+	@ReadOnly
 	public void countByPanelId_PanelExists_HourlyElectricitiesCountReturned() {
 		ResponseEntity<Long> response = template.getForEntity("/api/panels/1/hourly/count", Long.class);
 
@@ -332,6 +355,7 @@ public class HourlyElectricityControllerTests extends ControllerTests {
 	}
 
 	@Test
+	@ReadOnly
 	public void countByPanelId_PanelDoesNotExist_NotFoundErrorReturned() {
 		Long panelId = 5000L;
 		String uri = String.format("/api/panels/%s/hourly/count", panelId);
@@ -347,4 +371,50 @@ public class HourlyElectricityControllerTests extends ControllerTests {
 		Assert.assertEquals(panelId, error.getId());
 	}
 
+	@Test
+	public void countByPanelId_HourlyElectricitiesCreatedAndDeleted_ExactCountReturned() {
+		Assert.assertEquals(10L, countByPanelId(1L));
+		Assert.assertEquals(13L, countByPanelId(2L));
+
+		URI location = null;
+		for (int i = 0; i < 2; i++) {
+			HttpEntity<Object> hourlyElectricity = new JsonHttpEntityBuilder().setProperty("generatedElectricity", 500)
+					.setProperty("readingAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME)).build();
+
+			ResponseEntity<?> response = template.postForEntity("/api/panels/1/hourly", hourlyElectricity,
+					Object.class);
+			Assert.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+			location = response.getHeaders().getLocation();
+		}
+		Assert.assertEquals(12L, countByPanelId(1L));
+
+		// A rejected creation should not be counted.
+		HttpEntity<Object> invalidHourlyElectricity = new JsonHttpEntityBuilder()
+				.setProperty("readingAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME)).build();
+		template.postForEntity("/api/panels/1/hourly", invalidHourlyElectricity, Object.class);
+		Assert.assertEquals(12L, countByPanelId(1L));
+
+		Assert.assertEquals(HttpStatus.NO_CONTENT,
+				template.exchange(location, HttpMethod.DELETE, null, Object.class).getStatusCode());
+		Assert.assertEquals(HttpStatus.NO_CONTENT,
+				template.exchange("/api/panels/1/hourly/1", HttpMethod.DELETE, null, Object.class).getStatusCode());
+		Assert.assertEquals(10L, countByPanelId(1L));
+
+		// Rejected deletions should not be counted either.
+		template.exchange("/api/panels/1/hourly/1", HttpMethod.DELETE, null, Object.class);
+		template.exchange("/api/panels/2/hourly/2", HttpMethod.DELETE, null, Object.class);
+		Assert.assertEquals(10L, countByPanelId(1L));
+		Assert.assertEquals(13L, countByPanelId(2L));
+	}
+
+	private long countByPanelId(Long panelId) {
+		ResponseEntity<Long> response = template.getForEntity(String.format("/api/panels/%s/hourly/count", panelId),
+				Long.class);
+
+		Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
+		Assert.assertNotNull(response.getBody());
+
+		return response.getBody();
+	}
+
 }
@@ -19,9 +19,11 @@ import org.rainbow.solar.rest.err.SolarErrorCode;
 import org.rainbow.solar.rest.util.ErrorMessagesResourceBundle;
 import org.rainbow.solar.rest.util.JsonHttpEntityBuilder;
 import org.rainbow.solar.rest.util.RegexUtil;
+import org.rainbow.solar.rest.util.SqlStatistics;
 import org.rainbow.solar.service.util.ExceptionMessagesResourceBundle;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -222,6 +224,7 @@ public class PanelControllerTests extends ControllerTests {
 	}
 
 	@Test
+	@ReadOnly
 	public void getById_PanelIdGiven_PanelReturned() {
 		String uri = "/api/panels/1";
 
@@ -243,6 +246,24 @@ public class PanelControllerTests extends ControllerTests {
 	}
 
 	@Test
+	@ReadOnly
+	public void getById_CorrelationIdGiven_CorrelationIdAndSqlStatisticsReturned() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(SqlStatistics.CORRELATION_ID_HEADER, "getById-1");
+
+		ResponseEntity<PanelDto> response = template.exchange("/api/panels/1", HttpMethod.GET,
+				new HttpEntity<>(headers), PanelDto.class);
+
+		Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
+		Assert.assertEquals("getById-1", response.getHeaders().getFirst(SqlStatistics.CORRELATION_ID_HEADER));
+
+		SqlStatistics statistics = SqlStatistics.of(response.getHeaders());
+		Assert.assertTrue(statistics.toString(), statistics.getStatementCount() <= 2);
+		Assert.assertTrue(statistics.toString(), statistics.getRowsFetched() >= 1);
+	}
+
+	@Test
+	@ReadOnly
 	public void getById_PanelDoesNotExist_NotFoundErrorReturned() {
 		Long panelId = 5000L;
 		String uri = String.format("/api/panels/%s", panelId);
@@ -259,6 +280,7 @@ public class PanelControllerTests extends ControllerTests {
 	}
 
 	@Test
+	@ReadOnly
 	public void get_PanelsExist_PanelsReturned() throws Exception {
 		ResponseEntity<List<PanelDto>> response = template.exchange("/api/panels", HttpMethod.GET, null,
 				new ParameterizedTypeReference<List<PanelDto>>() {
@@ -327,6 +349,7 @@ public class PanelControllerTests extends ControllerTests {
 	}
 
 	@Test
+	@ReadOnly
 	public void get_PageNumberAndSizeGiven_PanelsReturned() throws Exception {
 		ResponseEntity<List<PanelDto>> response = template.exchange("/api/panels?page=0&size=3", HttpMethod.GET, null,
 				new ParameterizedTypeReference<List<PanelDto>>() {
@@ -373,6 +396,7 @@ public class PanelControllerTests extends ControllerTests {
 	}
 
 	@Test
+	@ReadOnly
 	public void count_PanelsExist_PanelsCountReturned() {
 		ResponseEntity<Long> response = template.getForEntity("/api/panels/count", Long.class);
 
@@ -383,4 +407,90 @@ public class PanelControllerTests extends ControllerTests {
 		Assert.assertEquals(Long.valueOf(5), actual);
 	}
 
+	@Test
+	public void count_PanelsCreatedAndDeleted_ExactCountReturned() {
+		HttpEntity<Object> panel = new JsonHttpEntityBuilder().setProperty("serial", "232323")
+				.setProperty("latitude", 54.123232).setProperty("longitude", 54.123232).setProperty("brand", "tesla")
+				.setProperty("unitOfMeasure", "KW").build();
+
+		ResponseEntity<?> response = template.postForEntity("/api/panels", panel, Object.class);
+		Assert.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+		Assert.assertEquals(6L, count());
+
+		// A rejected creation should not be counted.
+		template.postForEntity("/api/panels", panel, Object.class);
+		Assert.assertEquals(6L, count());
+
+		response = template.exchange(response.getHeaders().getLocation(), HttpMethod.DELETE, null, Object.class);
+		Assert.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+		response = template.exchange("/api/panels/4", HttpMethod.DELETE, null, Object.class);
+		Assert.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+		Assert.assertEquals(4L, count());
+
+		// A rejected deletion should not be counted either.
+		template.exchange("/api/panels/4", HttpMethod.DELETE, null, Object.class);
+		Assert.assertEquals(4L, count());
+	}
+
+	@Test
+	public void getById_PanelUpdated_UpdatedPanelReturned() {
+		String uri = "/api/panels/2";
+
+		// The first read may cache the panel.
+		Assert.assertEquals("100002", template.getForEntity(uri, PanelDto.class).getBody().getSerial());
+
+		HttpEntity<Object> panel = new JsonHttpEntityBuilder().setProperty("serial", "22222")
+				.setProperty("latitude", 80.123456).setProperty("longitude", 81.654321).setProperty("brand", "tesla")
+				.setProperty("unitOfMeasure", "W").build();
+		ResponseEntity<?> response = template.exchange(uri, HttpMethod.PUT, panel, Object.class);
+		Assert.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+
+		PanelDto actual = template.getForEntity(uri, PanelDto.class).getBody();
+		Assert.assertEquals("22222", actual.getSerial());
+		Assert.assertEquals(Double.valueOf(80.123456), actual.getLatitude());
+		Assert.assertEquals(Double.valueOf(81.654321), actual.getLongitude());
+		Assert.assertEquals("tesla", actual.getBrand());
+		Assert.assertEquals(UnitOfMeasure.W.toString(), actual.getUnitOfMeasure());
+	}
+
+	@Test
+	public void getById_PanelDeleted_NotFoundErrorReturned() {
+		Long panelId = 4L;
+		String uri = String.format("/api/panels/%s", panelId);
+
+		// The first reads may cache the panel.
+		Assert.assertEquals(HttpStatus.OK, template.getForEntity(uri, PanelDto.class).getStatusCode());
+		Assert.assertEquals(HttpStatus.OK, template.getForEntity(uri + "/hourly/count", Long.class).getStatusCode());
+
+		ResponseEntity<?> response = template.exchange(uri, HttpMethod.DELETE, null, Object.class);
+		Assert.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+
+		ResponseEntity<PanelNotFoundError> getResponse = template.getForEntity(uri, PanelNotFoundError.class);
+		Assert.assertEquals(HttpStatus.NOT_FOUND, getResponse.getStatusCode());
+		Assert.assertEquals(panelId, getResponse.getBody().getId());
+
+		// The APIs that look the panel up before working on its hourly electricities
+		// should not see it either.
+		ResponseEntity<PanelNotFoundError> countResponse = template.getForEntity(uri + "/hourly/count",
+				PanelNotFoundError.class);
+		Assert.assertEquals(HttpStatus.NOT_FOUND, countResponse.getStatusCode());
+		Assert.assertEquals(SolarErrorCode.PANEL_ID_NOT_FOUND.value(), countResponse.getBody().getCode());
+
+		HttpEntity<Object> hourlyElectricity = new JsonHttpEntityBuilder().setProperty("generatedElectricity", 500)
+				.setProperty("readingAt", "2018-08-01T10:00:00").build();
+		ResponseEntity<PanelNotFoundError> createResponse = template.postForEntity(uri + "/hourly", hourlyElectricity,
+				PanelNotFoundError.class);
+		Assert.assertEquals(HttpStatus.NOT_FOUND, createResponse.getStatusCode());
+		Assert.assertEquals(SolarErrorCode.PANEL_ID_NOT_FOUND.value(), createResponse.getBody().getCode());
+	}
+
+	private long count() {
+		ResponseEntity<Long> response = template.getForEntity("/api/panels/count", Long.class);
+
+		Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
+		Assert.assertNotNull(response.getBody());
+
+		return response.getBody();
+	}
+
 }
@@ -0,0 +1,220 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.controller;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.rainbow.solar.rest.util.CapturedStatement;
+import org.rainbow.solar.rest.util.FixtureGenerator;
+import org.rainbow.solar.rest.util.JsonHttpEntityBuilder;
+import org.rainbow.solar.rest.util.QueryCapture;
+import org.rainbow.solar.rest.util.QueryPlanInspector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * This class checks the SQL statements the APIs execute against a large
+ * fixture: none of them may scan a large table, and the number of statements
+ * executed per request may not grow with the size of the returned page. It only
+ * runs on MySQL, whose execution plans are the ones that matter.
+ *
+ * @author biya-bi
+ *
+ */
+public class QueryPlanTests extends ControllerTests {
+
+	// Enough panels for a scan of the panel table to be reported, and enough
+	// readings per panel for the deep page below to hold rows.
+	private static final int PANEL_COUNT = 2000;
+	private static final int READINGS_PER_PANEL = 100;
+	// The generated rows come after those of the fixtures.
+	private static final long FIRST_PANEL_ID = 1000;
+	private static final long FIRST_HOURLY_ELECTRICITY_ID = 1000;
+
+	private static boolean fixtureGenerated;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private QueryPlanInspector inspector;
+
+	@Before
+	public void setupFixture() throws Exception {
+		// Any scan of at least half of the panel table is reported, and so is any
+		// scan of the far larger hourly_electricity table.
+		inspector = new QueryPlanInspector(dataSource).setMinFullScanRows(PANEL_COUNT / 2);
+		Assume.assumeTrue("Execution plans are only checked on MySQL.", inspector.isSupported());
+
+		// A test that modifies the database has it restored before the next test,
+		// which removes the fixture, so the fixture may have to be generated again.
+		if (!isFixturePresent()) {
+			new FixtureGenerator().setSeed(21).setPanelCount(PANEL_COUNT).setReadingsPerPanel(READINGS_PER_PANEL)
+					.setFirstPanelId(FIRST_PANEL_ID).setFirstHourlyElectricityId(FIRST_HOURLY_ELECTRICITY_ID)
+					.generate(dataSource);
+			// The row estimates of the plans come from the index statistics, which
+			// InnoDB only refreshes in the background after a bulk insert.
+			try (Connection connection = dataSource.getConnection();
+					Statement statement = connection.createStatement()) {
+				statement.execute("analyze table panel, hourly_electricity");
+			}
+			fixtureGenerated = true;
+		}
+	}
+
+	private boolean isFixturePresent() throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement("select 1 from panel where id = ?")) {
+			statement.setLong(1, FIRST_PANEL_ID);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				return resultSet.next();
+			}
+		}
+	}
+
+	@AfterClass
+	public static void cleanupFixture() {
+		if (fixtureGenerated) {
+			markDatabaseDirty();
+			fixtureGenerated = false;
+		}
+	}
+
+	@Test
+	@ReadOnly
+	public void get_HourlyElectricitiesPage_NoFullScanNorFilesort() throws Exception {
+		List<CapturedStatement> statements = capture(
+				() -> template.exchange(String.format("/api/panels/%s/hourly?page=4&size=20", FIRST_PANEL_ID),
+						HttpMethod.GET, null, String.class));
+
+		assertNoSlowAccessPath(statements);
+		assertAtMost(3, statements);
+	}
+
+	@Test
+	@ReadOnly
+	public void countByPanelId_HourlyElectricities_NoFullScan() throws Exception {
+		List<CapturedStatement> statements = capture(() -> template.exchange(
+				String.format("/api/panels/%s/hourly/count", FIRST_PANEL_ID), HttpMethod.GET, null, String.class));
+
+		assertNoSlowAccessPath(statements);
+		assertAtMost(2, statements);
+	}
+
+	@Test
+	@ReadOnly
+	public void getBeforeToday_DailyElectricities_NoFullScan() throws Exception {
+		List<CapturedStatement> statements = capture(() -> template.exchange(
+				String.format("/api/panels/%s/daily", FIRST_PANEL_ID), HttpMethod.GET, null, String.class));
+
+		// Grouping the readings by day cannot use an index.
+		inspector.setFilesortAllowed(true);
+		assertNoSlowAccessPath(statements);
+		assertAtMost(2, statements);
+	}
+
+	@Test
+	public void create_SerialNumberIsDuplicate_NoFullScan() throws Exception {
+		List<CapturedStatement> statements = capture(() -> template.postForEntity("/api/panels",
+				new JsonHttpEntityBuilder().setProperty("serial", String.format("G%09d", FIRST_PANEL_ID))
+						.setProperty("latitude", 54.123232).setProperty("longitude", 54.123232)
+						.setProperty("brand", "tesla").setProperty("unitOfMeasure", "KW").build(),
+				String.class), HttpStatus.UNPROCESSABLE_ENTITY);
+
+		assertNoSlowAccessPath(statements);
+	}
+
+	@Test
+	@ReadOnly
+	public void get_PanelsPage_StatementCountIndependentOfPageSize() throws Exception {
+		List<CapturedStatement> statements = capture(
+				() -> template.exchange("/api/panels?page=0&size=50", HttpMethod.GET, null, String.class));
+
+		// A statement per returned panel would reveal an N+1 select.
+		assertNoSlowAccessPath(statements);
+		assertAtMost(2, statements);
+	}
+
+	@Test
+	@ReadOnly
+	public void findSlowAccessPaths_DeepPanelsPage_FullScanReported() throws Exception {
+		List<CapturedStatement> statements = capture(
+				() -> template.exchange("/api/panels?page=30&size=50", HttpMethod.GET, null, String.class));
+
+		// Unlike the first page, a deep page reads all the panels before it.
+		List<String> slowAccessPaths = inspector.findSlowAccessPaths(statements);
+		Assert.assertTrue(statements.toString(),
+				slowAccessPaths.stream().anyMatch(slowAccessPath -> slowAccessPath.startsWith("Full scan of panel")));
+	}
+
+	@Test
+	@ReadOnly
+	public void findSlowAccessPaths_SerialLookupWithoutIndex_FullScanReported() throws Exception {
+		List<CapturedStatement> statements;
+		QueryCapture.start();
+		// Comparing an expression of the serial keeps MySQL from using an index on
+		// it, as if the index was missing.
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection
+						.prepareStatement("select id from panel where concat(serial, '') = ?")) {
+			statement.setString(1, String.format("G%09d", FIRST_PANEL_ID));
+			statement.executeQuery().close();
+		} finally {
+			statements = QueryCapture.stop();
+		}
+
+		Assert.assertEquals(statements.toString(), 1, statements.size());
+
+		List<String> slowAccessPaths = inspector.findSlowAccessPaths(statements);
+		Assert.assertEquals(1, slowAccessPaths.size());
+		Assert.assertTrue(slowAccessPaths.get(0), slowAccessPaths.get(0).startsWith("Full scan of panel"));
+	}
+
+	private List<CapturedStatement> capture(Request request) {
+		return capture(request, HttpStatus.OK);
+	}
+
+	private List<CapturedStatement> capture(Request request, HttpStatus expectedStatus) {
+		List<CapturedStatement> statements;
+		ResponseEntity<?> response;
+		QueryCapture.start();
+		try {
+			response = request.send();
+		} finally {
+			statements = QueryCapture.stop();
+		}
+
+		Assert.assertEquals(expectedStatus, response.getStatusCode());
+		Assert.assertFalse("No SQL statement was captured.", statements.isEmpty());
+		return statements;
+	}
+
+	private void assertNoSlowAccessPath(List<CapturedStatement> statements) throws Exception {
+		List<String> slowAccessPaths = inspector.findSlowAccessPaths(statements);
+		Assert.assertTrue(String.join(System.lineSeparator(), slowAccessPaths), slowAccessPaths.isEmpty());
+	}
+
+	private void assertAtMost(int expectedMaxCount, List<CapturedStatement> statements) {
+		Assert.assertTrue(String.format("Expected at most %d statements but %d were executed: %s", expectedMaxCount,
+				statements.size(), statements), statements.size() <= expectedMaxCount);
+	}
+
+	@FunctionalInterface
+	private interface Request {
+		ResponseEntity<?> send();
+	}
+}
@@ -0,0 +1,24 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test of a {@link ControllerTests} subclass that does not modify the
+ * database, so that the database is not restored after it runs.
+ * 
+ * @author biya-bi
+ *
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnly {
+
+}
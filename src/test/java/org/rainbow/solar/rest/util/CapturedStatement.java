@@ -0,0 +1,106 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An SQL statement executed while a {@link QueryCapture} was active, with the
+ * parameters it was executed with.
+ *
+ * @author biya-bi
+ *
+ */
+public class CapturedStatement {
+
+	private final String sql;
+	private final List<Parameter> parameters;
+	private final long elapsedNanos;
+
+	CapturedStatement(String sql, List<Parameter> parameters, long elapsedNanos) {
+		this.sql = Objects.requireNonNull(sql, "The sql argument cannot be null.");
+		this.parameters = Collections.unmodifiableList(new ArrayList<>(parameters));
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return the value last bound to the parameter at the given index, starting
+	 *         from 1, or null if none was bound to it.
+	 */
+	public Object getParameterValue(int index) {
+		Object value = null;
+		for (Parameter parameter : parameters) {
+			if (Integer.valueOf(index).equals(parameter.arguments[0])) {
+				value = parameter.arguments[1];
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Sets the parameters of this statement on another statement, such as an
+	 * <code>EXPLAIN</code> of this statement.
+	 */
+	public void bind(PreparedStatement statement) throws SQLException {
+		Objects.requireNonNull(statement, "The statement argument cannot be null.");
+
+		for (Parameter parameter : parameters) {
+			try {
+				parameter.setter.invoke(statement, parameter.arguments);
+			} catch (InvocationTargetException e) {
+				if (e.getCause() instanceof SQLException) {
+					throw (SQLException) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder b = new StringBuilder(sql);
+		if (!parameters.isEmpty()) {
+			b.append(" [");
+			for (int i = 0; i < parameters.size(); i++) {
+				if (i > 0) {
+					b.append(", ");
+				}
+				b.append(parameters.get(i).arguments[1]);
+			}
+			b.append("]");
+		}
+		return b.toString();
+	}
+
+	/**
+	 * A call to one of the <code>set</code> methods of a
+	 * {@link PreparedStatement}.
+	 */
+	static class Parameter {
+		private final Method setter;
+		private final Object[] arguments;
+
+		Parameter(Method setter, Object[] arguments) {
+			this.setter = setter;
+			this.arguments = arguments.clone();
+		}
+	}
+}
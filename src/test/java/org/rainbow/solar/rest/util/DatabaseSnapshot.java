@@ -0,0 +1,119 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a copy of a set of tables in shadow tables and restores the tables from
+ * that copy. Restoring only copies rows that already live in the database, so it
+ * is much cheaper than replaying the SQL scripts that produced them.
+ *
+ * @author biya-bi
+ *
+ */
+public class DatabaseSnapshot {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseSnapshot.class);
+
+	private static final String SNAPSHOT_TABLE_SUFFIX = "_snapshot";
+
+	private final DataSource dataSource;
+	private final List<String> tables;
+
+	private volatile boolean dirty;
+
+	public DatabaseSnapshot(DataSource dataSource, String... tables) {
+		Objects.requireNonNull(dataSource, "The dataSource argument cannot be null.");
+		Objects.requireNonNull(tables, "The tables argument cannot be null.");
+
+		this.dataSource = dataSource;
+		this.tables = Arrays.asList(tables);
+	}
+
+	/**
+	 * Copies the current content of the tables into their shadow tables, replacing
+	 * any copy left by a previous run.
+	 */
+	public void take() throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			for (String table : tables) {
+				statement.executeUpdate(String.format("drop table if exists %s", getSnapshotTable(table)));
+				statement.executeUpdate(
+						String.format("create table %s as select * from %s", getSnapshotTable(table), table));
+			}
+		}
+		dirty = false;
+		LOGGER.info(String.format("Took a snapshot of the tables %s", tables));
+	}
+
+	/**
+	 * Replaces the content of the tables by the content they had when the snapshot
+	 * was taken. On MySQL, the tables are restored in one transaction. On H2, the
+	 * switch that turns off the foreign key checks commits the open transaction
+	 * and applies to every connection, so a failed restore may leave the tables
+	 * partially restored and the restore must not run concurrently with other
+	 * uses of the database.
+	 */
+	public void restore() throws SQLException {
+		long start = System.nanoTime();
+		try (Connection connection = dataSource.getConnection()) {
+			SqlDialect dialect = SqlDialect.of(connection);
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try (Statement statement = connection.createStatement()) {
+				// The tables are restored in no particular order, so referential
+				// integrity can only hold again once all of them are restored.
+				statement.addBatch(dialect.translate("set foreign_key_checks = 0"));
+				for (String table : tables) {
+					statement.addBatch(String.format("delete from %s", table));
+					statement.addBatch(
+							String.format("insert into %s select * from %s", table, getSnapshotTable(table)));
+				}
+				statement.executeBatch();
+				connection.commit();
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				// A rollback does not undo the switch, which is a session setting on
+				// MySQL and a database setting on H2. The checks must be enabled again
+				// before the connection returns to the pool, whether the restore
+				// succeeded or not.
+				try (Statement statement = connection.createStatement()) {
+					statement.execute(dialect.translate("set foreign_key_checks = 1"));
+				} finally {
+					connection.setAutoCommit(autoCommit);
+				}
+			}
+		}
+		dirty = false;
+		LOGGER.debug(String.format("Restored the tables %s in %d ms", tables, (System.nanoTime() - start) / 1_000_000));
+	}
+
+	/**
+	 * Records that the tables may no longer match the snapshot.
+	 */
+	public void markDirty() {
+		dirty = true;
+	}
+
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	private String getSnapshotTable(String table) {
+		return table + SNAPSHOT_TABLE_SUFFIX;
+	}
+}
@@ -1,10 +1,10 @@
 package org.rainbow.solar.rest.util;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -14,8 +14,23 @@ import javax.sql.DataSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 
 /**
+ * Executes SQL scripts against a {@link DataSource}. Scripts are streamed one
+ * statement at a time through a {@link SqlScriptReader}, so they can be read
+ * from any {@link Resource} and their size does not affect memory use. All the
+ * scripts given to a single call are executed in one transaction, unless they
+ * switch the foreign key checks on H2, which commits the open transaction. Their
+ * statements are sent to the database in JDBC batches rather than one
+ * round-trip per statement. With MySQL, add
+ * <code>rewriteBatchedStatements=true</code> to the connection URL so that the
+ * driver collapses each batch into as few network packets as possible.
+ * <p>
+ * Scripts are written for MySQL and translated by the {@link SqlDialect} of the
+ * database they run on, so they also run on an embedded H2 database.
+ *
  * @author biya-bi
  *
  */
@@ -23,68 +38,109 @@ public class DatabaseUtil {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseUtil.class);
 
+	/**
+	 * The number of statements sent per batch when no batch size is specified.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
 	public static void execute(DataSource dataSource, String... sqlFilePaths)
 			throws SQLException, FileNotFoundException, IOException {
 		Objects.requireNonNull(dataSource, "The dataSource argument cannot be null.");
 		Objects.requireNonNull(sqlFilePaths, "The sqlFilePaths argument cannot be null.");
 
-		try (Connection connection = dataSource.getConnection()) {
-			for (String sqlFilePath : sqlFilePaths) {
-				Objects.requireNonNull(sqlFilePath, "A null was found where an sql file path was expected.");
+		File[] sqlFiles = new File[sqlFilePaths.length];
+		for (int i = 0; i < sqlFilePaths.length; i++) {
+			Objects.requireNonNull(sqlFilePaths[i], "A null was found where an sql file path was expected.");
 
-				execute(connection, new File(sqlFilePath));
-			}
+			sqlFiles[i] = new File(sqlFilePaths[i]);
 		}
+		execute(dataSource, DEFAULT_BATCH_SIZE, sqlFiles);
 	}
 
 	public static void execute(DataSource dataSource, File... sqlFiles)
 			throws SQLException, FileNotFoundException, IOException {
-		Objects.requireNonNull(dataSource, "The dataSource argument cannot be null.");
+		execute(dataSource, DEFAULT_BATCH_SIZE, sqlFiles);
+	}
+
+	public static void execute(DataSource dataSource, int batchSize, File... sqlFiles)
+			throws SQLException, FileNotFoundException, IOException {
 		Objects.requireNonNull(sqlFiles, "The sqlFiles argument cannot be null.");
 
+		Resource[] sqlResources = new Resource[sqlFiles.length];
+		for (int i = 0; i < sqlFiles.length; i++) {
+			Objects.requireNonNull(sqlFiles[i], "A null was found where an sql file was expected.");
+
+			sqlResources[i] = new FileSystemResource(sqlFiles[i]);
+		}
+		execute(dataSource, batchSize, sqlResources);
+	}
+
+	public static void execute(DataSource dataSource, Resource... sqlResources)
+			throws SQLException, FileNotFoundException, IOException {
+		execute(dataSource, DEFAULT_BATCH_SIZE, sqlResources);
+	}
+
+	public static void execute(DataSource dataSource, int batchSize, Resource... sqlResources)
+			throws SQLException, FileNotFoundException, IOException {
+		Objects.requireNonNull(dataSource, "The dataSource argument cannot be null.");
+		Objects.requireNonNull(sqlResources, "The sqlResources argument cannot be null.");
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("The batchSize argument must be greater than zero.");
+		}
+
 		try (Connection connection = dataSource.getConnection()) {
-			for (File file : sqlFiles) {
-				execute(connection, file);
+			SqlDialect dialect = SqlDialect.of(connection);
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				for (Resource resource : sqlResources) {
+					execute(connection, dialect, resource, batchSize);
+				}
+				connection.commit();
+			} catch (SQLException | IOException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(autoCommit);
 			}
 		}
 	}
 
-	private static void execute(Connection connection, File file)
+	private static void execute(Connection connection, SqlDialect dialect, Resource resource, int batchSize)
 			throws IOException, FileNotFoundException, SQLException {
 		Objects.requireNonNull(connection, "The connection argument cannot be null.");
-		Objects.requireNonNull(file, "The file argument cannot be null.");
+		Objects.requireNonNull(dialect, "The dialect argument cannot be null.");
+		Objects.requireNonNull(resource, "A null was found where an sql resource was expected.");
 
-		try (FileReader fileReader = new FileReader(file);
-				BufferedReader bufferedReader = new BufferedReader(fileReader);
+		try (SqlScriptReader scriptReader = new SqlScriptReader(
+				new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
 				Statement statement = connection.createStatement();) {
 
-			StringBuilder stringBuilder = new StringBuilder();
-
-			String line;
-			// Be sure to not have line starting with "--" or "/*" or any other
-			// non aplhabetical character
-			while ((line = bufferedReader.readLine()) != null) {
-				stringBuilder.append(line);
-			}
-
-			// Here is our splitter. We use ";" as a delimiter for each request
-			// then we are sure to have well formed statements
-			String[] instructions = stringBuilder.toString().split(";");
-
-			LOGGER.info(String.format("Started executing the file: '%s'", file.getAbsolutePath()));
-			for (String instruction : instructions) {
-				// We ensure to that there is no spaces before or after the request string in
-				// order to not execute empty statements
-				if (!instruction.trim().equals("")) {
-					statement.executeUpdate(instruction);
-					LOGGER.info(String.format(">> %s", instruction));
+			long start = System.nanoTime();
+			int statementCount = 0;
+			int batchCount = 0;
+			int pending = 0;
+			String instruction;
+			while ((instruction = scriptReader.readStatement()) != null) {
+				statement.addBatch(dialect.translate(instruction));
+				statementCount++;
+				if (++pending == batchSize) {
+					statement.executeBatch();
+					batchCount++;
+					pending = 0;
 				}
 			}
-			LOGGER.info(String.format("Finished executing the file: '%s'", file.getAbsolutePath()));
+			if (pending > 0) {
+				statement.executeBatch();
+				batchCount++;
+			}
+			LOGGER.info(String.format("Executed %d statements in %d batches in %d ms from the %s", statementCount,
+					batchCount, (System.nanoTime() - start) / 1_000_000, resource.getDescription()));
 
 		} catch (SQLException e) {
-			throw new SQLException(String.format("*** An exception was thrown while executing the file '%s': ",
-					file.getAbsolutePath()), e);
+			throw new SQLException(
+					String.format("*** An exception was thrown while executing the %s: ", resource.getDescription()),
+					e);
 		}
 	}
 }
@@ -0,0 +1,316 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates panels and their hourly electricities at any scale. The output only
+ * depends on the settings of the generator, so the same seed always yields the
+ * same rows, provided the date of the last reading is set: it defaults to the
+ * last hour of the previous day. Readings follow a diurnal curve: nothing is
+ * generated at night, generation peaks around noon, daylight lasts longer in
+ * summer and each day gets its own cloud cover.
+ * <p>
+ * The rows are either inserted in JDBC batches or written to CSV files that
+ * can be loaded with:
+ *
+ * <pre>
+ * LOAD DATA LOCAL INFILE 'panels.csv' INTO TABLE panel FIELDS TERMINATED BY ','
+ * 	(id,serial,latitude,longitude,brand,unit_of_measure);
+ * LOAD DATA LOCAL INFILE 'hourly_electricities.csv' INTO TABLE hourly_electricity FIELDS TERMINATED BY ','
+ * 	(id,generated_electricity,reading_at,panel_id);
+ * </pre>
+ *
+ * @author biya-bi
+ *
+ */
+public class FixtureGenerator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(FixtureGenerator.class);
+
+	private static final String[] BRANDS = { "canadiansolar", "sunpower", "jasolar", "qcells", "rec", "suntech",
+			"tesla", "trina" };
+	private static final String[] UNITS_OF_MEASURE = { "W", "KW" };
+	private static final DateTimeFormatter READING_AT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	private static final String INSERT_PANEL = "insert into panel(id,serial,latitude,longitude,brand,unit_of_measure) values (?,?,?,?,?,?)";
+	private static final String INSERT_HOURLY_ELECTRICITY = "insert into hourly_electricity(id,generated_electricity,reading_at,panel_id) values (?,?,?,?)";
+
+	private long seed;
+	private int panelCount = 10;
+	private int readingsPerPanel = 24;
+	private long firstPanelId = 1;
+	private long firstHourlyElectricityId = 1;
+	private LocalDateTime lastReadingAt = LocalDate.now().atStartOfDay().minusHours(1);
+	private int batchSize = DatabaseUtil.DEFAULT_BATCH_SIZE;
+
+	public FixtureGenerator setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	public FixtureGenerator setPanelCount(int panelCount) {
+		if (panelCount < 0) {
+			throw new IllegalArgumentException("The panelCount argument cannot be negative.");
+		}
+		this.panelCount = panelCount;
+		return this;
+	}
+
+	public FixtureGenerator setReadingsPerPanel(int readingsPerPanel) {
+		if (readingsPerPanel < 0) {
+			throw new IllegalArgumentException("The readingsPerPanel argument cannot be negative.");
+		}
+		this.readingsPerPanel = readingsPerPanel;
+		return this;
+	}
+
+	public FixtureGenerator setFirstPanelId(long firstPanelId) {
+		this.firstPanelId = firstPanelId;
+		return this;
+	}
+
+	public FixtureGenerator setFirstHourlyElectricityId(long firstHourlyElectricityId) {
+		this.firstHourlyElectricityId = firstHourlyElectricityId;
+		return this;
+	}
+
+	/**
+	 * Sets the reading date of the most recent hourly electricity of each panel.
+	 * The other readings of a panel are one hour apart before that date. It
+	 * defaults to the last hour of the day before the generator is created, so
+	 * that all readings are before today; set it to get the same rows on any
+	 * day.
+	 */
+	public FixtureGenerator setLastReadingAt(LocalDateTime lastReadingAt) {
+		this.lastReadingAt = Objects.requireNonNull(lastReadingAt, "The lastReadingAt argument cannot be null.");
+		return this;
+	}
+
+	public FixtureGenerator setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("The batchSize argument must be greater than zero.");
+		}
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * Inserts the generated rows into the panel and hourly_electricity tables. Each
+	 * batch is committed on its own so that the size of a transaction does not
+	 * grow with the number of rows.
+	 */
+	public void generate(DataSource dataSource) throws SQLException {
+		Objects.requireNonNull(dataSource, "The dataSource argument cannot be null.");
+
+		long start = System.nanoTime();
+		try (Connection connection = dataSource.getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try (PreparedStatement panelStatement = connection.prepareStatement(INSERT_PANEL);
+					PreparedStatement hourlyElectricityStatement = connection
+							.prepareStatement(INSERT_HOURLY_ELECTRICITY)) {
+				generate(new RowHandler() {
+					private int pending;
+
+					@Override
+					public void handlePanel(long id, String serial, double latitude, double longitude, String brand,
+							String unitOfMeasure) throws SQLException {
+						panelStatement.setLong(1, id);
+						panelStatement.setString(2, serial);
+						panelStatement.setDouble(3, latitude);
+						panelStatement.setDouble(4, longitude);
+						panelStatement.setString(5, brand);
+						panelStatement.setString(6, unitOfMeasure);
+						addBatch(panelStatement);
+					}
+
+					@Override
+					public void handleHourlyElectricity(long id, long generatedElectricity, LocalDateTime readingAt,
+							long panelId) throws SQLException {
+						if (pending > 0 && id == firstHourlyElectricityId) {
+							// All the panels must exist before their readings are inserted.
+							flush(panelStatement);
+						}
+						hourlyElectricityStatement.setLong(1, id);
+						hourlyElectricityStatement.setLong(2, generatedElectricity);
+						hourlyElectricityStatement.setTimestamp(3, Timestamp.valueOf(readingAt));
+						hourlyElectricityStatement.setLong(4, panelId);
+						addBatch(hourlyElectricityStatement);
+					}
+
+					@Override
+					public void end() throws SQLException {
+						flush(panelStatement);
+						flush(hourlyElectricityStatement);
+					}
+
+					private void addBatch(PreparedStatement statement) throws SQLException {
+						statement.addBatch();
+						if (++pending == batchSize) {
+							flush(statement);
+						}
+					}
+
+					private void flush(PreparedStatement statement) throws SQLException {
+						statement.executeBatch();
+						connection.commit();
+						pending = 0;
+					}
+				});
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		} catch (IOException e) {
+			// Only writing to files can throw this exception.
+			throw new IllegalStateException(e);
+		}
+		LOGGER.info(String.format("Inserted %d panels and %d hourly electricities in %d ms", panelCount,
+				(long) panelCount * readingsPerPanel, (System.nanoTime() - start) / 1_000_000));
+	}
+
+	/**
+	 * Writes the generated rows to CSV files suitable for
+	 * <code>LOAD DATA INFILE</code>.
+	 */
+	public void generate(File panelFile, File hourlyElectricityFile) throws IOException {
+		Objects.requireNonNull(panelFile, "The panelFile argument cannot be null.");
+		Objects.requireNonNull(hourlyElectricityFile, "The hourlyElectricityFile argument cannot be null.");
+
+		try (Writer panelWriter = new BufferedWriter(
+				new OutputStreamWriter(new FileOutputStream(panelFile), StandardCharsets.UTF_8));
+				Writer hourlyElectricityWriter = new BufferedWriter(
+						new OutputStreamWriter(new FileOutputStream(hourlyElectricityFile), StandardCharsets.UTF_8))) {
+			generate(panelWriter, hourlyElectricityWriter);
+		}
+	}
+
+	/**
+	 * Writes the generated rows as CSV lines suitable for
+	 * <code>LOAD DATA INFILE</code>.
+	 */
+	public void generate(Writer panelWriter, Writer hourlyElectricityWriter) throws IOException {
+		Objects.requireNonNull(panelWriter, "The panelWriter argument cannot be null.");
+		Objects.requireNonNull(hourlyElectricityWriter, "The hourlyElectricityWriter argument cannot be null.");
+
+		try {
+			generate(new RowHandler() {
+				@Override
+				public void handlePanel(long id, String serial, double latitude, double longitude, String brand,
+						String unitOfMeasure) throws IOException {
+					panelWriter.append(Long.toString(id)).append(',').append(serial).append(',')
+							.append(Double.toString(latitude)).append(',').append(Double.toString(longitude))
+							.append(',').append(brand).append(',').append(unitOfMeasure).append('\n');
+				}
+
+				@Override
+				public void handleHourlyElectricity(long id, long generatedElectricity, LocalDateTime readingAt,
+						long panelId) throws IOException {
+					hourlyElectricityWriter.append(Long.toString(id)).append(',')
+							.append(Long.toString(generatedElectricity)).append(',')
+							.append(READING_AT_FORMATTER.format(readingAt)).append(',').append(Long.toString(panelId))
+							.append('\n');
+				}
+
+				@Override
+				public void end() throws IOException {
+					panelWriter.flush();
+					hourlyElectricityWriter.flush();
+				}
+			});
+		} catch (SQLException e) {
+			// Only writing to a database can throw this exception.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void generate(RowHandler handler) throws SQLException, IOException {
+		for (int i = 0; i < panelCount; i++) {
+			long panelId = firstPanelId + i;
+			Random random = new Random(getPanelSeed(panelId));
+
+			handler.handlePanel(panelId, String.format("G%09d", panelId), round(50 + 35 * random.nextDouble()),
+					round(50 + 35 * random.nextDouble()), BRANDS[random.nextInt(BRANDS.length)],
+					UNITS_OF_MEASURE[random.nextInt(UNITS_OF_MEASURE.length)]);
+		}
+
+		long hourlyElectricityId = firstHourlyElectricityId;
+		for (int i = 0; i < panelCount; i++) {
+			long panelId = firstPanelId + i;
+			// The readings get their own random sequence so that they do not depend
+			// on how many values were drawn for the panel itself.
+			Random random = new Random(~getPanelSeed(panelId));
+			double peak = 300 + 1200 * random.nextDouble();
+
+			LocalDate day = null;
+			double cloudCover = 0;
+			for (int j = readingsPerPanel - 1; j >= 0; j--) {
+				LocalDateTime readingAt = lastReadingAt.minusHours(j);
+				if (!readingAt.toLocalDate().equals(day)) {
+					day = readingAt.toLocalDate();
+					cloudCover = 0.8 * random.nextDouble() * random.nextDouble();
+				}
+				handler.handleHourlyElectricity(hourlyElectricityId++,
+						getGeneratedElectricity(readingAt, peak, cloudCover, random), readingAt, panelId);
+			}
+		}
+		handler.end();
+	}
+
+	private long getGeneratedElectricity(LocalDateTime readingAt, double peak, double cloudCover, Random random) {
+		// Daylight lasts between 8 and 16 hours depending on the season and is
+		// centered on noon.
+		double dayLength = 12 + 4 * Math.sin(2 * Math.PI * (readingAt.getDayOfYear() - 80) / 365.0);
+		double sunrise = 12 - dayLength / 2;
+		double hour = readingAt.getHour() + 0.5;
+		if (hour <= sunrise || hour >= sunrise + dayLength) {
+			return 0;
+		}
+		double sunHeight = Math.sin(Math.PI * (hour - sunrise) / dayLength);
+		double noise = 0.9 + 0.2 * random.nextDouble();
+		return Math.round(peak * sunHeight * (1 - cloudCover) * noise);
+	}
+
+	private long getPanelSeed(long panelId) {
+		return seed * 0x9E3779B97F4A7C15L + panelId;
+	}
+
+	private static double round(double coordinate) {
+		return Math.round(coordinate * 1_000_000) / 1_000_000.0;
+	}
+
+	private interface RowHandler {
+		void handlePanel(long id, String serial, double latitude, double longitude, String brand,
+				String unitOfMeasure) throws SQLException, IOException;
+
+		void handleHourlyElectricity(long id, long generatedElectricity, LocalDateTime readingAt, long panelId)
+				throws SQLException, IOException;
+
+		void end() throws SQLException, IOException;
+	}
+}
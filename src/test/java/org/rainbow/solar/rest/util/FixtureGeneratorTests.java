@@ -0,0 +1,73 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class tests {@link FixtureGenerator}
+ * 
+ * @author biya-bi
+ *
+ */
+public class FixtureGeneratorTests {
+
+	private static final LocalDateTime LAST_READING_AT = LocalDateTime.of(2018, 6, 21, 0, 0);
+
+	@Test
+	public void generate_SameSeed_SameRowsWritten() throws IOException {
+		String[] first = generate(new FixtureGenerator().setSeed(42).setLastReadingAt(LAST_READING_AT));
+		String[] second = generate(new FixtureGenerator().setSeed(42).setLastReadingAt(LAST_READING_AT));
+
+		Assert.assertArrayEquals(first, second);
+	}
+
+	@Test
+	public void generate_DifferentSeeds_DifferentRowsWritten() throws IOException {
+		String[] first = generate(new FixtureGenerator().setSeed(42).setLastReadingAt(LAST_READING_AT));
+		String[] second = generate(new FixtureGenerator().setSeed(43).setLastReadingAt(LAST_READING_AT));
+
+		Assert.assertNotEquals(first[0], second[0]);
+		Assert.assertNotEquals(first[1], second[1]);
+	}
+
+	@Test
+	public void generate_SettingsGiven_RowsMatchSettings() throws IOException {
+		String[] rows = generate(new FixtureGenerator().setSeed(42).setPanelCount(3).setReadingsPerPanel(48)
+				.setFirstPanelId(100).setFirstHourlyElectricityId(500).setLastReadingAt(LAST_READING_AT));
+
+		String[] panels = rows[0].split("\n");
+		Assert.assertEquals(3, panels.length);
+		Assert.assertTrue(panels[0].startsWith("100,G000000100,"));
+		Assert.assertTrue(panels[2].startsWith("102,G000000102,"));
+
+		String[] hourlyElectricities = rows[1].split("\n");
+		Assert.assertEquals(3 * 48, hourlyElectricities.length);
+		Assert.assertTrue(hourlyElectricities[0].startsWith("500,"));
+		Assert.assertTrue(hourlyElectricities[0].endsWith(",2018-06-19 01:00:00,100"));
+		Assert.assertTrue(hourlyElectricities[47].endsWith(",2018-06-21 00:00:00,100"));
+		Assert.assertTrue(hourlyElectricities[48].startsWith("548,"));
+		Assert.assertTrue(hourlyElectricities[48].endsWith(",101"));
+	}
+
+	@Test
+	public void generate_Night_NoElectricityGenerated() throws IOException {
+		String[] rows = generate(new FixtureGenerator().setSeed(42).setPanelCount(1).setReadingsPerPanel(1)
+				.setLastReadingAt(LAST_READING_AT.withHour(2)));
+
+		Assert.assertEquals("1,0,2018-06-21 02:00:00,1", rows[1].trim());
+	}
+
+	private String[] generate(FixtureGenerator generator) throws IOException {
+		StringWriter panelWriter = new StringWriter();
+		StringWriter hourlyElectricityWriter = new StringWriter();
+		generator.generate(panelWriter, hourlyElectricityWriter);
+		return new String[] { panelWriter.toString(), hourlyElectricityWriter.toString() };
+	}
+}
@@ -3,44 +3,219 @@
  */
 package org.rainbow.solar.rest.util;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Map;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+
 /**
+ * Builds a JSON request entity by streaming each property straight into a byte
+ * buffer. Numbers and booleans keep their JSON type, strings are escaped, maps
+ * are written as objects and collections and arrays as arrays. Any other value
+ * is written as its string representation.
+ * <p>
+ * The body is an object, unless the first call is {@link #startArray()}, which
+ * makes it an array whose elements are added with {@link #startObject()} and
+ * {@link #addElement(Object)}. Properties are written in the order they are set
+ * and a property set twice is written twice. Once an entity is built, the
+ * builder starts a new empty body and reuses its buffer.
+ *
  * @author biya-bi
  *
  */
 public class JsonHttpEntityBuilder {
 
-	private Map<String, Object> map = new HashMap<>();
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final ByteArrayBuilder buffer = new ByteArrayBuilder();
+	private JsonGenerator generator;
+
+	public JsonHttpEntityBuilder() {
+		start();
+	}
 
 	public JsonHttpEntityBuilder setProperty(String key, Object value) {
-		map.put(key, value);
+		try {
+			startRootObject();
+			generator.writeFieldName(key);
+			writeValue(value);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return this;
+	}
+
+	/**
+	 * Starts an array property. The elements are added with
+	 * {@link #startObject()} or {@link #addElement(Object)} until
+	 * {@link #endArray()} is called.
+	 */
+	public JsonHttpEntityBuilder startArray(String key) {
+		try {
+			startRootObject();
+			generator.writeArrayFieldStart(key);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return this;
+	}
+
+	/**
+	 * Starts the body as an array if nothing was written yet, or else an array
+	 * element of the current array. The elements are added with
+	 * {@link #startObject()} or {@link #addElement(Object)} until
+	 * {@link #endArray()} is called.
+	 */
+	public JsonHttpEntityBuilder startArray() {
+		try {
+			generator.writeStartArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return this;
+	}
+
+	public JsonHttpEntityBuilder endArray() {
+		try {
+			generator.writeEndArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return this;
+	}
+
+	/**
+	 * Starts an object element of the current array, or the body itself if
+	 * nothing was written yet. Its properties are set with
+	 * {@link #setProperty(String, Object)} until {@link #endObject()} is called.
+	 */
+	public JsonHttpEntityBuilder startObject() {
+		try {
+			generator.writeStartObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return this;
+	}
+
+	/**
+	 * Starts an object property. Its properties are set with
+	 * {@link #setProperty(String, Object)} until {@link #endObject()} is called.
+	 */
+	public JsonHttpEntityBuilder startObject(String key) {
+		try {
+			startRootObject();
+			generator.writeObjectFieldStart(key);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return this;
+	}
+
+	public JsonHttpEntityBuilder endObject() {
+		try {
+			generator.writeEndObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds an element to the current array.
+	 */
+	public JsonHttpEntityBuilder addElement(Object value) {
+		try {
+			writeValue(value);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 		return this;
 	}
 
 	public HttpEntity<Object> build() {
-		StringBuilder b = new StringBuilder();
-		b.append("{");
-		int i = 0;
-		for (Map.Entry<String, Object> entry : map.entrySet()) {
-			b.append("\"");
-			b.append(entry.getKey());
-			b.append("\":");
-			b.append("\"");
-			b.append(entry.getValue());
-			b.append("\"");
-			if (i < map.size() - 1)
-				b.append(",");
-			i++;
+		try {
+			// An entity without any property is an empty object.
+			startRootObject();
+			// Closing the generator also closes the objects and arrays left open.
+			generator.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		byte[] body = buffer.toByteArray();
+		buffer.reset();
+		start();
+		return getHttpEntity(body);
+	}
+
+	private void start() {
+		try {
+			generator = JSON_FACTORY.createGenerator(buffer);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Opens the body as an object unless it was already opened, as an object or
+	 * an array.
+	 */
+	private void startRootObject() throws IOException {
+		JsonStreamContext context = generator.getOutputContext();
+		if (context.inRoot() && context.getEntryCount() == 0) {
+			generator.writeStartObject();
+		}
+	}
 
+	private void writeValue(Object value) throws IOException {
+		if (value == null) {
+			generator.writeNull();
+		} else if (value instanceof String) {
+			generator.writeString((String) value);
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short
+				|| value instanceof Byte) {
+			generator.writeNumber(((Number) value).longValue());
+		} else if (value instanceof Double || value instanceof Float) {
+			generator.writeNumber(((Number) value).doubleValue());
+		} else if (value instanceof BigDecimal) {
+			generator.writeNumber((BigDecimal) value);
+		} else if (value instanceof BigInteger) {
+			generator.writeNumber((BigInteger) value);
+		} else if (value instanceof Boolean) {
+			generator.writeBoolean((Boolean) value);
+		} else if (value instanceof Map) {
+			generator.writeStartObject();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				generator.writeFieldName(String.valueOf(entry.getKey()));
+				writeValue(entry.getValue());
+			}
+			generator.writeEndObject();
+		} else if (value instanceof Iterable) {
+			generator.writeStartArray();
+			for (Object element : (Iterable<?>) value) {
+				writeValue(element);
+			}
+			generator.writeEndArray();
+		} else if (value.getClass().isArray()) {
+			generator.writeStartArray();
+			for (int i = 0; i < Array.getLength(value); i++) {
+				writeValue(Array.get(value, i));
+			}
+			generator.writeEndArray();
+		} else {
+			generator.writeString(value.toString());
 		}
-		b.append("}");
-		return getHttpEntity(b.toString());
 	}
 
 	private HttpEntity<Object> getHttpEntity(Object body) {
@@ -49,4 +224,4 @@ public class JsonHttpEntityBuilder {
 		return new HttpEntity<Object>(body, headers);
 	}
 
-}
\ No newline at end of file
+}
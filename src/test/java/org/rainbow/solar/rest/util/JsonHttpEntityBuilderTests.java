@@ -0,0 +1,109 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+
+/**
+ * This class tests {@link JsonHttpEntityBuilder}
+ *
+ * @author biya-bi
+ *
+ */
+public class JsonHttpEntityBuilderTests {
+
+	@Test
+	public void build_NothingSet_EmptyObjectReturned() {
+		HttpEntity<Object> entity = new JsonHttpEntityBuilder().build();
+
+		Assert.assertEquals("{}", getBody(entity));
+		Assert.assertEquals(MediaType.APPLICATION_JSON, entity.getHeaders().getContentType());
+	}
+
+	@Test
+	public void build_ScalarPropertiesSet_JsonTypesKept() {
+		HttpEntity<Object> entity = new JsonHttpEntityBuilder().setProperty("serial", "232323")
+				.setProperty("generatedElectricity", 2000).setProperty("id", 5000000000L)
+				.setProperty("latitude", 54.123232).setProperty("longitude", new BigDecimal("72.512351"))
+				.setProperty("active", true).setProperty("brand", null).build();
+
+		Assert.assertEquals("{\"serial\":\"232323\",\"generatedElectricity\":2000,\"id\":5000000000,"
+				+ "\"latitude\":54.123232,\"longitude\":72.512351,\"active\":true,\"brand\":null}", getBody(entity));
+	}
+
+	@Test
+	public void build_StringWithSpecialCharacters_StringEscaped() {
+		HttpEntity<Object> entity = new JsonHttpEntityBuilder().setProperty("brand", "a\"b\\c\nd\te\u0001")
+				.build();
+
+		Assert.assertEquals("{\"brand\":\"a\\\"b\\\\c\\nd\\te\\u0001\"}", getBody(entity));
+	}
+
+	@Test
+	public void build_MapCollectionAndArrayValues_ObjectsAndArraysWritten() {
+		Map<String, Object> panel = new LinkedHashMap<>();
+		panel.put("serial", "100001");
+		panel.put("latitude", 70.650001);
+
+		HttpEntity<Object> entity = new JsonHttpEntityBuilder().setProperty("panel", panel)
+				.setProperty("brands", Arrays.asList("tesla", "rec")).setProperty("readings", new int[] { 1, 2 })
+				.build();
+
+		Assert.assertEquals("{\"panel\":{\"serial\":\"100001\",\"latitude\":70.650001},"
+				+ "\"brands\":[\"tesla\",\"rec\"],\"readings\":[1,2]}", getBody(entity));
+	}
+
+	@Test
+	public void build_NestedObjectsAndArraysStarted_NestedStructureWritten() {
+		HttpEntity<Object> entity = new JsonHttpEntityBuilder().startObject("panel").setProperty("serial", "100001")
+				.endObject().startArray("hourlyElectricities").startObject().setProperty("generatedElectricity", 100)
+				.endObject().addElement(200).endArray().build();
+
+		Assert.assertEquals("{\"panel\":{\"serial\":\"100001\"},"
+				+ "\"hourlyElectricities\":[{\"generatedElectricity\":100},200]}", getBody(entity));
+	}
+
+	@Test
+	public void build_TopLevelArrayStarted_ArrayOfObjectsWritten() {
+		HttpEntity<Object> entity = new JsonHttpEntityBuilder().startArray().startObject()
+				.setProperty("generatedElectricity", 100).endObject().startObject()
+				.setProperty("generatedElectricity", 200).endObject().endArray().build();
+
+		Assert.assertEquals("[{\"generatedElectricity\":100},{\"generatedElectricity\":200}]", getBody(entity));
+	}
+
+	@Test
+	public void build_StructuresLeftOpen_StructuresClosed() {
+		HttpEntity<Object> entity = new JsonHttpEntityBuilder().startArray("readings").startObject()
+				.setProperty("generatedElectricity", 100).build();
+
+		Assert.assertEquals("{\"readings\":[{\"generatedElectricity\":100}]}", getBody(entity));
+	}
+
+	@Test
+	public void build_CalledTwice_EachEntityHoldsOnlyItsOwnProperties() {
+		JsonHttpEntityBuilder builder = new JsonHttpEntityBuilder();
+
+		HttpEntity<Object> first = builder.setProperty("serial", "100001").build();
+		HttpEntity<Object> second = builder.startArray().addElement(1).endArray().build();
+		HttpEntity<Object> third = builder.setProperty("serial", "100002").build();
+
+		Assert.assertEquals("{\"serial\":\"100001\"}", getBody(first));
+		Assert.assertEquals("[1]", getBody(second));
+		Assert.assertEquals("{\"serial\":\"100002\"}", getBody(third));
+	}
+
+	private String getBody(HttpEntity<Object> entity) {
+		return new String((byte[]) entity.getBody(), StandardCharsets.UTF_8);
+	}
+}
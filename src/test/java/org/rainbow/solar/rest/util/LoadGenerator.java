@@ -0,0 +1,251 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Sends the same request from several concurrent clients and records the
+ * latency of every response.
+ * <p>
+ * By default the workload is closed: each client sends its next request as soon
+ * as it gets the previous response. When a target throughput is set, the
+ * workload is open: requests are sent at a fixed rate, each on its own thread,
+ * whatever the number of requests still waiting for a response, up to a limit
+ * past which the run ends and the remaining requests are reported as dropped. Latencies are
+ * then measured from the time each request was scheduled, so that a slow server
+ * cannot hide its queueing delay by slowing the clients down.
+ *
+ * @author biya-bi
+ *
+ */
+public class LoadGenerator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LoadGenerator.class);
+
+	private int concurrency = 4;
+	private long warmupMillis = 2_000;
+	private long durationMillis = 10_000;
+	private double targetThroughput;
+	private int maxInFlight = 1000;
+
+	/**
+	 * Sets the number of clients of a closed workload. An open workload has as
+	 * many requests in flight as the target throughput and the latency require.
+	 */
+	public LoadGenerator setConcurrency(int concurrency) {
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("The concurrency argument must be greater than zero.");
+		}
+		this.concurrency = concurrency;
+		return this;
+	}
+
+	public LoadGenerator setWarmup(long warmup, TimeUnit unit) {
+		Objects.requireNonNull(unit, "The unit argument cannot be null.");
+		this.warmupMillis = unit.toMillis(warmup);
+		return this;
+	}
+
+	public LoadGenerator setDuration(long duration, TimeUnit unit) {
+		Objects.requireNonNull(unit, "The unit argument cannot be null.");
+		this.durationMillis = unit.toMillis(duration);
+		return this;
+	}
+
+	/**
+	 * Sets the number of requests per second to send. Zero, the default, selects a
+	 * closed workload.
+	 */
+	public LoadGenerator setTargetThroughput(double targetThroughput) {
+		if (targetThroughput < 0) {
+			throw new IllegalArgumentException("The targetThroughput argument cannot be negative.");
+		}
+		if (targetThroughput > 1_000_000_000) {
+			throw new IllegalArgumentException(
+					"The targetThroughput argument cannot exceed one request per nanosecond.");
+		}
+		this.targetThroughput = targetThroughput;
+		return this;
+	}
+
+	/**
+	 * Sets the number of requests of an open workload that may wait for a
+	 * response at the same time. Once they are all waiting, the server is too far
+	 * behind to be measured at the target throughput: the run ends, and the
+	 * requests it was left to send are reported as dropped.
+	 */
+	public LoadGenerator setMaxInFlight(int maxInFlight) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("The maxInFlight argument must be greater than zero.");
+		}
+		this.maxInFlight = maxInFlight;
+		return this;
+	}
+
+	/**
+	 * Sends the request until the configured duration elapses. A request fails if
+	 * it throws an exception or if its response has a 4xx or 5xx status code.
+	 */
+	public LoadReport run(String name, Callable<? extends ResponseEntity<?>> request)
+			throws InterruptedException, ExecutionException {
+		Objects.requireNonNull(name, "The name argument cannot be null.");
+		Objects.requireNonNull(request, "The request argument cannot be null.");
+
+		Recorder recorder = new Recorder(3);
+		AtomicLong errorCount = new AtomicLong();
+
+		long start = System.nanoTime();
+		long measurementStart = start + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+		long end = measurementStart + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+		long droppedCount = 0;
+		if (targetThroughput > 0) {
+			droppedCount = runOpen(request, start, measurementStart, end, recorder, errorCount);
+		} else {
+			runClosed(request, measurementStart, end, recorder, errorCount);
+		}
+
+		LoadReport report = new LoadReport(name, recorder.getIntervalHistogram(), errorCount.get(), droppedCount,
+				Math.max(0, System.nanoTime() - measurementStart), targetThroughput);
+		LOGGER.info(report.toString());
+		return report;
+	}
+
+	private void runClosed(Callable<? extends ResponseEntity<?>> request, long measurementStart, long end,
+			Recorder recorder, AtomicLong errorCount) throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		try {
+			List<Future<?>> clients = new ArrayList<>();
+			for (int i = 0; i < concurrency; i++) {
+				clients.add(executor.submit(() -> {
+					while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+						send(request, System.nanoTime(), measurementStart, recorder, errorCount);
+					}
+				}));
+			}
+			for (Future<?> client : clients) {
+				client.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return the number of requests of the measurement that were dropped.
+	 */
+	private long runOpen(Callable<? extends ResponseEntity<?>> request, long start, long measurementStart, long end,
+			Recorder recorder, AtomicLong errorCount) throws InterruptedException {
+		// Each request gets its own thread, so that the rate at which requests are
+		// sent does not depend on how long the server takes to answer them, up to
+		// maxInFlight threads.
+		ExecutorService executor = Executors.newCachedThreadPool();
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		long droppedCount = 0;
+		try {
+			long period = (long) (1_000_000_000L / targetThroughput);
+			for (long intendedSend = start; intendedSend < end; intendedSend += period) {
+				long now = System.nanoTime();
+				if (now < intendedSend) {
+					LockSupport.parkNanos(intendedSend - now);
+				}
+				if (!inFlight.tryAcquire()) {
+					// This request and all the following ones cannot be sent on
+					// schedule.
+					long firstDropped = Math.max(intendedSend, measurementStart);
+					droppedCount = firstDropped < end ? (end - firstDropped + period - 1) / period : 0;
+					LOGGER.warn(String.format("%d requests waiting for a response, ending the run early",
+							maxInFlight));
+					break;
+				}
+				long scheduledSend = intendedSend;
+				executor.execute(() -> {
+					try {
+						send(request, scheduledSend, measurementStart, recorder, errorCount);
+					} finally {
+						inFlight.release();
+					}
+				});
+			}
+			executor.shutdown();
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+				LOGGER.debug("Waiting for the pending requests to complete");
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return droppedCount;
+	}
+
+	private void send(Callable<? extends ResponseEntity<?>> request, long intendedSend, long measurementStart,
+			Recorder recorder, AtomicLong errorCount) {
+		boolean failed;
+		try {
+			failed = request.call().getStatusCode().value() >= 400;
+		} catch (Exception e) {
+			failed = true;
+		}
+
+		if (intendedSend >= measurementStart) {
+			recorder.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedSend)));
+			if (failed) {
+				errorCount.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Runs open workloads of increasing throughput until the server can no longer
+	 * keep up, that is until it completes less than 95% of the target throughput,
+	 * fails more than 1% of the requests or its 99th percentile latency exceeds
+	 * the given limit.
+	 *
+	 * @return the report of the highest target throughput the server kept up with,
+	 *         or null if it could not keep up with the initial throughput.
+	 */
+	public LoadReport findSaturationPoint(String name, Callable<? extends ResponseEntity<?>> request,
+			double initialThroughput, double maxThroughput, long maxP99Latency, TimeUnit unit)
+			throws InterruptedException, ExecutionException {
+		if (initialThroughput <= 0) {
+			throw new IllegalArgumentException("The initialThroughput argument must be greater than zero.");
+		}
+		Objects.requireNonNull(unit, "The unit argument cannot be null.");
+
+		double previousTargetThroughput = this.targetThroughput;
+		try {
+			LoadReport saturationPoint = null;
+			for (double throughput = initialThroughput; throughput <= maxThroughput; throughput *= 1.5) {
+				setTargetThroughput(throughput);
+				LoadReport report = run(String.format("%s @ %.0f req/s", name, throughput), request);
+				if (report.getThroughput() < 0.95 * throughput || report.getErrorRate() > 0.01
+						|| report.getLatency(99) > unit.toMicros(maxP99Latency)) {
+					break;
+				}
+				saturationPoint = report;
+			}
+			LOGGER.info(String.format("Saturation point of %s: %s", name,
+					saturationPoint == null ? "below the initial throughput" : saturationPoint));
+			return saturationPoint;
+		} finally {
+			setTargetThroughput(previousTargetThroughput);
+		}
+	}
+}
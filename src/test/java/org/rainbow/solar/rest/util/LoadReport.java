@@ -0,0 +1,96 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.util.Objects;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * The outcome of a {@link LoadGenerator} run against a single endpoint.
+ * Latencies are expressed in microseconds.
+ *
+ * @author biya-bi
+ *
+ */
+public class LoadReport {
+
+	private final String name;
+	private final Histogram latencies;
+	private final long errorCount;
+	private final long droppedCount;
+	private final long elapsedNanos;
+	private final double targetThroughput;
+
+	public LoadReport(String name, Histogram latencies, long errorCount, long droppedCount, long elapsedNanos,
+			double targetThroughput) {
+		this.name = Objects.requireNonNull(name, "The name argument cannot be null.");
+		this.latencies = Objects.requireNonNull(latencies, "The latencies argument cannot be null.");
+		this.errorCount = errorCount;
+		this.droppedCount = droppedCount;
+		this.elapsedNanos = elapsedNanos;
+		this.targetThroughput = targetThroughput;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Histogram getLatencies() {
+		return latencies;
+	}
+
+	public long getRequestCount() {
+		return latencies.getTotalCount();
+	}
+
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	/**
+	 * @return the number of requests of an open workload that were never sent,
+	 *         because too many requests were already waiting for a response.
+	 */
+	public long getDroppedCount() {
+		return droppedCount;
+	}
+
+	/**
+	 * @return the share of the requests that failed or were dropped.
+	 */
+	public double getErrorRate() {
+		long requestCount = getRequestCount() + droppedCount;
+		return requestCount == 0 ? 0 : (double) (errorCount + droppedCount) / requestCount;
+	}
+
+	/**
+	 * @return the number of requests completed per second.
+	 */
+	public double getThroughput() {
+		return elapsedNanos == 0 ? 0 : getRequestCount() * 1_000_000_000.0 / elapsedNanos;
+	}
+
+	/**
+	 * @return the requested number of requests per second, or zero if the load was
+	 *         generated by a closed workload.
+	 */
+	public double getTargetThroughput() {
+		return targetThroughput;
+	}
+
+	public long getLatency(double percentile) {
+		return latencies.getValueAtPercentile(percentile);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"%s: %d requests, %.1f req/s%s, %d dropped, %.2f%% errors, "
+						+ "p50 %d us, p99 %d us, p99.9 %d us, max %d us",
+				name, getRequestCount(), getThroughput(),
+				targetThroughput > 0 ? String.format(" (target %.1f req/s)", targetThroughput) : "", droppedCount,
+				getErrorRate() * 100, getLatency(50), getLatency(99), getLatency(99.9), latencies.getMaxValue());
+	}
+}
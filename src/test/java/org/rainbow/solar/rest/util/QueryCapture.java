@@ -0,0 +1,200 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+/**
+ * Records the SQL statements executed through a {@link DataSource} between
+ * {@link #start()} and {@link #stop()}, whichever thread executes them. The
+ * statements of the application are only recorded if its data source was
+ * wrapped with {@link #wrap(DataSource)}, which also collects the
+ * {@link SqlStatistics} of the threads that use it.
+ *
+ * @author biya-bi
+ *
+ */
+public class QueryCapture {
+
+	// Null while no capture is active.
+	private static volatile List<CapturedStatement> statements;
+
+	/**
+	 * Starts recording the statements, discarding those of any previous capture.
+	 */
+	public static void start() {
+		statements = Collections.synchronizedList(new ArrayList<>());
+	}
+
+	/**
+	 * Stops recording the statements.
+	 *
+	 * @return the statements recorded since {@link #start()}, in the order they
+	 *         completed.
+	 */
+	public static List<CapturedStatement> stop() {
+		List<CapturedStatement> captured = statements;
+		statements = null;
+		if (captured == null) {
+			throw new IllegalStateException("No capture was started.");
+		}
+		synchronized (captured) {
+			return new ArrayList<>(captured);
+		}
+	}
+
+	public static DataSource wrap(DataSource dataSource) {
+		Objects.requireNonNull(dataSource, "The dataSource argument cannot be null.");
+
+		return proxy(DataSource.class, dataSource, (target, method, args) -> {
+			long start = System.nanoTime();
+			Object result = invoke(target, method, args);
+			if (!(result instanceof Connection)) {
+				return result;
+			}
+			SqlStatistics statistics = SqlStatistics.current();
+			if (statistics != null) {
+				statistics.connectionAcquired(System.nanoTime() - start);
+			}
+			return wrap((Connection) result);
+		});
+	}
+
+	private static Connection wrap(Connection connection) {
+		return proxy(Connection.class, connection, (target, method, args) -> {
+			Object result = invoke(target, method, args);
+			if (result instanceof CallableStatement) {
+				return proxy(CallableStatement.class, (CallableStatement) result,
+						new StatementHandler((String) args[0]));
+			}
+			if (result instanceof PreparedStatement) {
+				return proxy(PreparedStatement.class, (PreparedStatement) result,
+						new StatementHandler((String) args[0]));
+			}
+			if (result instanceof Statement) {
+				return proxy(Statement.class, (Statement) result, new StatementHandler(null));
+			}
+			return result;
+		});
+	}
+
+	private static ResultSet wrap(ResultSet resultSet) {
+		return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+			Object result = invoke(target, method, args);
+			if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+				SqlStatistics statistics = SqlStatistics.current();
+				if (statistics != null) {
+					statistics.rowFetched();
+				}
+			}
+			return result;
+		});
+	}
+
+	private static void record(CapturedStatement statement) {
+		List<CapturedStatement> captured = statements;
+		if (captured != null) {
+			captured.add(statement);
+		}
+	}
+
+	private static <T> T proxy(Class<T> type, T target, Handler handler) {
+		InvocationHandler invocationHandler = (proxy, method, args) -> {
+			if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+				return invoke(target, method, args);
+			}
+			return handler.invoke(target, method, args);
+		};
+		return type.cast(Proxy.newProxyInstance(QueryCapture.class.getClassLoader(), new Class<?>[] { type },
+				invocationHandler));
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	@FunctionalInterface
+	private interface Handler {
+		Object invoke(Object target, Method method, Object[] args) throws Throwable;
+	}
+
+	private static class StatementHandler implements Handler {
+		// Null for plain statements, whose SQL is given when they are executed.
+		private final String sql;
+		private final Map<Integer, CapturedStatement.Parameter> parameters = new TreeMap<>();
+		private final List<String> batch = new ArrayList<>();
+
+		StatementHandler(String sql) {
+			this.sql = sql;
+		}
+
+		@Override
+		public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (sql != null && name.startsWith("set") && args != null && args.length >= 2
+					&& args[0] instanceof Integer) {
+				parameters.put((Integer) args[0], new CapturedStatement.Parameter(method, args));
+			} else if (name.equals("clearParameters")) {
+				parameters.clear();
+			} else if (sql == null && name.equals("addBatch")) {
+				batch.add((String) args[0]);
+			} else if (sql == null && name.equals("clearBatch")) {
+				batch.clear();
+			}
+
+			if (name.equals("getResultSet")) {
+				return wrapResultSet(invoke(target, method, args));
+			}
+			if (!name.startsWith("execute")) {
+				return invoke(target, method, args);
+			}
+
+			long start = System.nanoTime();
+			try {
+				return wrapResultSet(invoke(target, method, args));
+			} finally {
+				long elapsedNanos = System.nanoTime() - start;
+				SqlStatistics statistics = SqlStatistics.current();
+				if (statistics != null) {
+					statistics.statementExecuted(elapsedNanos);
+				}
+				List<CapturedStatement.Parameter> values = new ArrayList<>(parameters.values());
+				if (sql != null) {
+					record(new CapturedStatement(sql, values, elapsedNanos));
+				} else if (args != null && args.length > 0 && args[0] instanceof String) {
+					record(new CapturedStatement((String) args[0], values, elapsedNanos));
+				} else {
+					for (String batchedSql : batch) {
+						record(new CapturedStatement(batchedSql, values, elapsedNanos / batch.size()));
+					}
+					batch.clear();
+				}
+			}
+		}
+
+		private Object wrapResultSet(Object result) {
+			return result instanceof ResultSet ? wrap((ResultSet) result) : result;
+		}
+	}
+}
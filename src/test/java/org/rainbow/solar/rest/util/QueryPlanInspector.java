@@ -0,0 +1,156 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs <code>EXPLAIN</code> on captured statements and reports the slow access
+ * paths MySQL chose for them. Execution plans are only meaningful on tables
+ * holding a realistic number of rows, so the statements should be captured
+ * against a large fixture, such as one produced by {@link FixtureGenerator}.
+ *
+ * @author biya-bi
+ *
+ */
+public class QueryPlanInspector {
+
+	// The trailing LIMIT clause, either "limit count", "limit offset, count" or
+	// "limit count offset offset", each term being a literal or a placeholder.
+	private static final Pattern LIMIT = Pattern
+			.compile("\\slimit\\s+(\\?|\\d+)(?:\\s*,\\s*(\\?|\\d+))?(?:\\s+offset\\s+(\\?|\\d+))?\\s*$");
+
+	private final DataSource dataSource;
+	private long minFullScanRows = 1000;
+	private boolean filesortAllowed;
+
+	public QueryPlanInspector(DataSource dataSource) {
+		this.dataSource = Objects.requireNonNull(dataSource, "The dataSource argument cannot be null.");
+	}
+
+	/**
+	 * Sets the number of rows a full table scan must read to be reported. Scans of
+	 * smaller tables are cheaper than index lookups and the optimizer rightly
+	 * prefers them, so the threshold must stay below the size of the tables the
+	 * statements run against.
+	 */
+	public QueryPlanInspector setMinFullScanRows(long minFullScanRows) {
+		this.minFullScanRows = minFullScanRows;
+		return this;
+	}
+
+	/**
+	 * Sets whether sorts that do not use an index are tolerated. They cannot be
+	 * avoided when grouping by a computed value, such as the day of a reading.
+	 */
+	public QueryPlanInspector setFilesortAllowed(boolean filesortAllowed) {
+		this.filesortAllowed = filesortAllowed;
+		return this;
+	}
+
+	/**
+	 * @return whether the database can explain statements the way this class
+	 *         expects, which only MySQL does.
+	 */
+	public boolean isSupported() throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			return SqlDialect.of(connection) == SqlDialect.MYSQL;
+		}
+	}
+
+	/**
+	 * Explains the select, update and delete statements among the given ones.
+	 *
+	 * @return a description of each full table scan and, unless allowed, of each
+	 *         filesort found in their plans. A scan by a statement that has a
+	 *         <code>LIMIT</code> but neither a <code>WHERE</code> clause nor an
+	 *         offset other than 0, such as the read of the first unsorted page, is
+	 *         not reported: it stops after the page. A deeper page still reads
+	 *         all the rows before it.
+	 */
+	public List<String> findSlowAccessPaths(List<CapturedStatement> statements) throws SQLException {
+		Objects.requireNonNull(statements, "The statements argument cannot be null.");
+
+		List<String> slowAccessPaths = new ArrayList<>();
+		try (Connection connection = dataSource.getConnection()) {
+			for (CapturedStatement statement : statements) {
+				if (!isExplainable(statement.getSql())) {
+					continue;
+				}
+				boolean boundedScan = isBoundedScan(statement);
+				try (PreparedStatement explain = connection.prepareStatement("explain " + statement.getSql())) {
+					statement.bind(explain);
+					try (ResultSet plan = explain.executeQuery()) {
+						while (plan.next()) {
+							String table = plan.getString("table");
+							long rows = plan.getLong("rows");
+							String extra = plan.getString("Extra");
+							if ("ALL".equals(plan.getString("type")) && rows >= minFullScanRows && !boundedScan) {
+								slowAccessPaths.add(String.format("Full scan of %s (%d rows) in: %s", table, rows,
+										statement));
+							}
+							if (!filesortAllowed && extra != null && extra.contains("Using filesort")) {
+								slowAccessPaths.add(String.format("Filesort on %s in: %s", table, statement));
+							}
+						}
+					}
+				}
+			}
+		}
+		return slowAccessPaths;
+	}
+
+	private boolean isBoundedScan(CapturedStatement statement) {
+		String sql = statement.getSql().toLowerCase(Locale.ROOT);
+		if (sql.contains(" where ")) {
+			return false;
+		}
+		Matcher matcher = LIMIT.matcher(sql);
+		if (!matcher.find()) {
+			return false;
+		}
+		// MySQL writes the offset either before the row count or after it.
+		if (matcher.group(2) != null) {
+			return isZero(statement, sql, matcher.start(1), matcher.group(1));
+		}
+		if (matcher.group(3) != null) {
+			return isZero(statement, sql, matcher.start(3), matcher.group(3));
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether the given literal or placeholder of the statement, found at
+	 *         the given position of its SQL, is 0.
+	 */
+	private boolean isZero(CapturedStatement statement, String sql, int position, String value) {
+		if (!"?".equals(value)) {
+			return Long.parseLong(value) == 0;
+		}
+		int index = 1;
+		for (int i = 0; i < position; i++) {
+			if (sql.charAt(i) == '?') {
+				index++;
+			}
+		}
+		Object parameter = statement.getParameterValue(index);
+		return parameter instanceof Number && ((Number) parameter).longValue() == 0;
+	}
+
+	private boolean isExplainable(String sql) {
+		String statement = sql.trim().toLowerCase(Locale.ROOT);
+		return statement.startsWith("select") || statement.startsWith("update") || statement.startsWith("delete");
+	}
+}
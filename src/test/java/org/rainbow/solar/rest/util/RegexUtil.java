@@ -1,8 +1,12 @@
 /**
- * 
+ *
  */
 package org.rainbow.solar.rest.util;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.regex.Pattern;
 
 /**
@@ -10,8 +14,132 @@ import java.util.regex.Pattern;
  *
  */
 public class RegexUtil {
+
+	private static final int MAX_CACHED_PATTERNS = 256;
+	private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+	// The least recently used pattern is evicted once the cache is full.
+	private static final Map<String, Pattern> PATTERNS = Collections
+			.synchronizedMap(new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+					return size() > MAX_CACHED_PATTERNS;
+				}
+			});
+
+	/**
+	 * Checks whether the input ends with the given pattern followed by at least one
+	 * digit. A pattern without regular expression metacharacters, such as
+	 * <code>/api/panels/</code>, is matched literally without the regular
+	 * expression engine.
+	 */
 	public static boolean endsWithDigit(String pattern, String input) {
-		Pattern p = Pattern.compile(String.format("^.*%s\\d+$", pattern));
-		return p.matcher(input).matches();
+		Objects.requireNonNull(pattern, "The pattern argument cannot be null.");
+		Objects.requireNonNull(input, "The input argument cannot be null.");
+
+		if (isLiteral(pattern)) {
+			return endsWithLiteralAndDigit(pattern, input);
+		}
+		return PATTERNS.computeIfAbsent(pattern, p -> Pattern.compile(String.format("^.*%s\\d+$", p)))
+				.matcher(input).matches();
+	}
+
+	/**
+	 * Extracts the numeric identifiers of a URI in a single pass. The template is a
+	 * path in which each identifier is written as a <code>{name}</code>
+	 * placeholder, such as <code>/api/panels/{panelId}/hourly/{id}</code>. Only the
+	 * path of an absolute URI is matched against the template.
+	 *
+	 * @return the identifiers in the order of their placeholders, or null if the
+	 *         URI does not match the template or an identifier exceeds
+	 *         {@link Long#MAX_VALUE}.
+	 */
+	public static long[] extractIds(String template, String uri) {
+		Objects.requireNonNull(template, "The template argument cannot be null.");
+		Objects.requireNonNull(uri, "The uri argument cannot be null.");
+
+		int placeholderCount = 0;
+		for (int i = 0; i < template.length(); i++) {
+			if (template.charAt(i) == '{') {
+				placeholderCount++;
+			}
+		}
+
+		long[] ids = new long[placeholderCount];
+		int id = 0;
+		int u = getPathStart(uri);
+		int t = 0;
+		while (t < template.length()) {
+			char c = template.charAt(t);
+			if (c == '{') {
+				int end = template.indexOf('}', t);
+				if (end == -1) {
+					throw new IllegalArgumentException(
+							String.format("The placeholder at index %d of the template '%s' is not closed.", t, template));
+				}
+				t = end + 1;
+
+				int digitsStart = u;
+				long value = 0;
+				while (u < uri.length() && isDigit(uri.charAt(u))) {
+					int digit = uri.charAt(u++) - '0';
+					if (value > (Long.MAX_VALUE - digit) / 10) {
+						// The id is too large to be a long.
+						return null;
+					}
+					value = value * 10 + digit;
+				}
+				if (u == digitsStart) {
+					return null;
+				}
+				ids[id++] = value;
+			} else {
+				if (u == uri.length() || uri.charAt(u) != c) {
+					return null;
+				}
+				t++;
+				u++;
+			}
+		}
+		return u == uri.length() ? ids : null;
+	}
+
+	private static boolean endsWithLiteralAndDigit(String literal, String input) {
+		int digitsStart = input.length();
+		while (digitsStart > 0 && isDigit(input.charAt(digitsStart - 1))) {
+			digitsStart--;
+		}
+		// The literal may itself end with digits, in which case it may end anywhere
+		// within the trailing digits as long as at least one digit follows it.
+		for (int end = digitsStart; end < input.length(); end++) {
+			if (input.startsWith(literal, end - literal.length())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isLiteral(String pattern) {
+		for (int i = 0; i < pattern.length(); i++) {
+			if (REGEX_METACHARACTERS.indexOf(pattern.charAt(i)) != -1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int getPathStart(String uri) {
+		int scheme = uri.indexOf("://");
+		if (scheme == -1) {
+			return 0;
+		}
+		int path = uri.indexOf('/', scheme + 3);
+		return path == -1 ? uri.length() : path;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
 	}
 }
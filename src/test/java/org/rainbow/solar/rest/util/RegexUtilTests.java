@@ -0,0 +1,55 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class tests {@link RegexUtil}
+ * 
+ * @author biya-bi
+ *
+ */
+public class RegexUtilTests {
+
+	@Test
+	public void endsWithDigit_LiteralPatternGiven_SameResultAsRegularExpression() {
+		Assert.assertTrue(RegexUtil.endsWithDigit("/api/panels/", "http://localhost:8080/api/panels/12"));
+		Assert.assertFalse(RegexUtil.endsWithDigit("/api/panels/", "http://localhost:8080/api/panels/"));
+		Assert.assertFalse(RegexUtil.endsWithDigit("/api/panels/", "http://localhost:8080/api/panels/1/hourly"));
+		Assert.assertTrue(RegexUtil.endsWithDigit("panel1", "/panel12"));
+		Assert.assertFalse(RegexUtil.endsWithDigit("panel1", "/panel1"));
+	}
+
+	@Test
+	public void endsWithDigit_RegularExpressionGiven_RegularExpressionMatched() {
+		Assert.assertTrue(
+				RegexUtil.endsWithDigit("/api/panels/\\d+/hourly/", "http://localhost:8080/api/panels/2/hourly/17"));
+		Assert.assertFalse(
+				RegexUtil.endsWithDigit("/api/panels/\\d+/hourly/", "http://localhost:8080/api/panels/2/daily/17"));
+	}
+
+	@Test
+	public void extractIds_UriMatchesTemplate_IdsReturned() {
+		long[] ids = RegexUtil.extractIds("/api/panels/{panelId}/hourly/{id}",
+				"http://localhost:8080/api/panels/2/hourly/17");
+
+		Assert.assertArrayEquals(new long[] { 2, 17 }, ids);
+	}
+
+	@Test
+	public void extractIds_UriDoesNotMatchTemplate_NullReturned() {
+		Assert.assertNull(RegexUtil.extractIds("/api/panels/{panelId}/hourly/{id}", "/api/panels/2/hourly/"));
+		Assert.assertNull(RegexUtil.extractIds("/api/panels/{id}", "http://localhost:8080/api/panels/2/hourly"));
+	}
+
+	@Test
+	public void extractIds_IdExceedsLongRange_NullReturned() {
+		Assert.assertArrayEquals(new long[] { Long.MAX_VALUE },
+				RegexUtil.extractIds("/api/panels/{id}", "/api/panels/9223372036854775807"));
+		Assert.assertNull(RegexUtil.extractIds("/api/panels/{id}", "/api/panels/9223372036854775808"));
+		Assert.assertNull(RegexUtil.extractIds("/api/panels/{id}", "/api/panels/100000000000000000000"));
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The databases the SQL scripts can run on. The scripts are written for MySQL;
+ * each other dialect translates the MySQL constructs it does not understand.
+ *
+ * @author biya-bi
+ *
+ */
+public enum SqlDialect {
+
+	MYSQL {
+		@Override
+		public String translate(String statement) {
+			return statement;
+		}
+	},
+
+	/**
+	 * H2 in MySQL mode, which still lacks MySQL intervals and foreign key
+	 * switches. The foreign key switch is translated into
+	 * <code>SET REFERENTIAL_INTEGRITY</code>, which, unlike its MySQL
+	 * counterpart, applies to the whole database rather than to the session, and
+	 * commits the open transaction.
+	 */
+	H2 {
+		private final Pattern dateAdd = Pattern
+				.compile("(?i)date_add\\(\\s*([^,]+?)\\s*,\\s*interval\\s+([-+]?\\d+)\\s+(\\w+)\\s*\\)");
+		private final Pattern foreignKeyChecks = Pattern
+				.compile("(?i)^\\s*set\\s+foreign_key_checks\\s*=\\s*([01])\\s*$");
+
+		@Override
+		public String translate(String statement) {
+			Matcher matcher = foreignKeyChecks.matcher(statement);
+			if (matcher.matches()) {
+				// Database-wide and committing: the statements around it do not run in
+				// one transaction, and other connections see the checks switched off.
+				return String.format("set referential_integrity %s", "1".equals(matcher.group(1)));
+			}
+
+			matcher = dateAdd.matcher(statement);
+			if (!matcher.find()) {
+				return statement;
+			}
+			StringBuffer translated = new StringBuffer();
+			do {
+				matcher.appendReplacement(translated, "dateadd('$3', $2, $1)");
+			} while (matcher.find());
+			matcher.appendTail(translated);
+			return translated.toString();
+		}
+	};
+
+	/**
+	 * Translates a MySQL statement into this dialect.
+	 */
+	public abstract String translate(String statement);
+
+	/**
+	 * @return the dialect of the database the connection is connected to. MySQL
+	 *         is assumed for any database other than H2.
+	 */
+	public static SqlDialect of(Connection connection) throws SQLException {
+		Objects.requireNonNull(connection, "The connection argument cannot be null.");
+
+		return "H2".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()) ? H2 : MYSQL;
+	}
+}
@@ -0,0 +1,240 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * Reads an SQL script one statement at a time. Only the statement being read
+ * is held in memory, so scripts of any size can be replayed. The reader
+ * understands single, double and back quoted literals, <code>--</code>,
+ * <code>#</code> and <code>/* *&#47;</code> comments, and the MySQL client
+ * <code>DELIMITER</code> command. MySQL executable comments
+ * (<code>/*! ... *&#47;</code>) are kept as part of the statement.
+ *
+ * @author biya-bi
+ *
+ */
+public class SqlScriptReader implements Closeable {
+
+	private static final String DEFAULT_DELIMITER = ";";
+	private static final String DELIMITER_COMMAND = "DELIMITER";
+	private static final int EOF = -1;
+
+	private final Reader reader;
+	private final char[] buffer = new char[8192];
+	private int position;
+	private int limit;
+
+	private final StringBuilder statement = new StringBuilder();
+	private String delimiter = DEFAULT_DELIMITER;
+
+	public SqlScriptReader(Reader reader) {
+		this.reader = Objects.requireNonNull(reader, "The reader argument cannot be null.");
+	}
+
+	/**
+	 * Reads the next statement of the script.
+	 *
+	 * @return the statement without its delimiter and surrounding whitespace, or
+	 *         null if the end of the script has been reached.
+	 * @throws IOException
+	 *             if the underlying reader cannot be read.
+	 */
+	public String readStatement() throws IOException {
+		statement.setLength(0);
+
+		String result;
+		int c;
+		while ((c = next()) != EOF) {
+			switch (c) {
+			case '\'':
+			case '"':
+			case '`':
+				readQuoted((char) c);
+				break;
+			case '-':
+				if (peek() == '-') {
+					next();
+					int third = peek();
+					if (third == EOF || Character.isWhitespace(third)) {
+						skipLineComment();
+					} else {
+						statement.append("--");
+					}
+				} else if (append((char) c) && (result = takeStatement()) != null) {
+					return result;
+				}
+				break;
+			case '#':
+				skipLineComment();
+				break;
+			case '/':
+				if (peek() == '*') {
+					next();
+					readBlockComment();
+				} else if (append((char) c) && (result = takeStatement()) != null) {
+					return result;
+				}
+				break;
+			case '\n':
+				if (isDelimiterCommand()) {
+					changeDelimiter();
+				} else if (statement.length() > 0) {
+					statement.append('\n');
+				}
+				break;
+			default:
+				if (append((char) c) && (result = takeStatement()) != null) {
+					return result;
+				}
+			}
+		}
+
+		if (isDelimiterCommand()) {
+			changeDelimiter();
+		}
+		String last = statement.toString().trim();
+		statement.setLength(0);
+		return last.isEmpty() ? null : last;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Appends a character that is neither quoted nor commented out.
+	 *
+	 * @return true if the statement now ends with the current delimiter.
+	 */
+	private boolean append(char c) {
+		if (statement.length() == 0 && Character.isWhitespace(c)) {
+			return false;
+		}
+		statement.append(c);
+		if (isDelimiterCommand()) {
+			// The new delimiter runs until the end of the line.
+			return false;
+		}
+
+		int length = statement.length();
+		int delimiterLength = delimiter.length();
+		if (length < delimiterLength || c != delimiter.charAt(delimiterLength - 1)) {
+			return false;
+		}
+		return delimiterLength == 1 || statement.indexOf(delimiter, length - delimiterLength) != -1;
+	}
+
+	/**
+	 * Removes the delimiter from the statement being read and returns it.
+	 *
+	 * @return the statement, or null if only a lone delimiter was read.
+	 */
+	private String takeStatement() {
+		statement.setLength(statement.length() - delimiter.length());
+		String result = statement.toString().trim();
+		statement.setLength(0);
+		return result.isEmpty() ? null : result;
+	}
+
+	private void readQuoted(char quote) throws IOException {
+		statement.append(quote);
+		int c;
+		while ((c = next()) != EOF) {
+			statement.append((char) c);
+			if (c == '\\' && quote != '`') {
+				int escaped = next();
+				if (escaped != EOF) {
+					statement.append((char) escaped);
+				}
+			} else if (c == quote) {
+				// A doubled quote is simply read as two consecutive literals.
+				return;
+			}
+		}
+	}
+
+	private void skipLineComment() throws IOException {
+		int c;
+		while ((c = peek()) != EOF && c != '\n') {
+			next();
+		}
+	}
+
+	private void readBlockComment() throws IOException {
+		boolean executable = peek() == '!';
+		if (executable) {
+			statement.append("/*");
+		}
+		int previous = EOF;
+		int c;
+		while ((c = next()) != EOF) {
+			if (executable) {
+				statement.append((char) c);
+			}
+			if (previous == '*' && c == '/') {
+				break;
+			}
+			previous = c;
+		}
+		if (!executable && statement.length() > 0) {
+			// Keeps the tokens on both sides of the comment apart.
+			statement.append(' ');
+		}
+	}
+
+	private boolean isDelimiterCommand() {
+		int length = DELIMITER_COMMAND.length();
+		if (statement.length() <= length || !Character.isWhitespace(statement.charAt(length))) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (Character.toUpperCase(statement.charAt(i)) != DELIMITER_COMMAND.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void changeDelimiter() {
+		String newDelimiter = statement.substring(DELIMITER_COMMAND.length()).trim();
+		if (newDelimiter.isEmpty()) {
+			throw new IllegalStateException("The DELIMITER command requires a delimiter.");
+		}
+		delimiter = newDelimiter;
+		statement.setLength(0);
+	}
+
+	private int next() throws IOException {
+		if (position == limit && !fill()) {
+			return EOF;
+		}
+		return buffer[position++];
+	}
+
+	private int peek() throws IOException {
+		if (position == limit && !fill()) {
+			return EOF;
+		}
+		return buffer[position];
+	}
+
+	private boolean fill() throws IOException {
+		int read;
+		do {
+			read = reader.read(buffer, 0, buffer.length);
+		} while (read == 0);
+		if (read == EOF) {
+			return false;
+		}
+		position = 0;
+		limit = read;
+		return true;
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class tests {@link SqlScriptReader}
+ * 
+ * @author biya-bi
+ *
+ */
+public class SqlScriptReaderTests {
+
+	@Test
+	public void readStatement_DelimiterInsideLiterals_LiteralsKept() throws IOException {
+		List<String> statements = read("insert into panel(serial,brand) values ('100;001', \"a\\\";b\");select `x;y` from t;");
+
+		Assert.assertEquals(Arrays.asList("insert into panel(serial,brand) values ('100;001', \"a\\\";b\")",
+				"select `x;y` from t"), statements);
+	}
+
+	@Test
+	public void readStatement_CommentsGiven_CommentsSkipped() throws IOException {
+		List<String> statements = read("-- header; comment\n/* block; comment */delete from panel;\n"
+				+ "# another; comment\nselect 1--1;\n/*!40101 SET NAMES utf8 */;");
+
+		Assert.assertEquals(Arrays.asList("delete from panel", "select 1--1", "/*!40101 SET NAMES utf8 */"),
+				statements);
+	}
+
+	@Test
+	public void readStatement_DelimiterChanged_NewDelimiterUsed() throws IOException {
+		List<String> statements = read(
+				"DELIMITER $$\ncreate procedure p() begin select 1; end$$\ndelimiter ;\nselect 'it''s';;\nselect 2");
+
+		Assert.assertEquals(Arrays.asList("create procedure p() begin select 1; end", "select 'it''s'", "select 2"),
+				statements);
+	}
+
+	private List<String> read(String script) throws IOException {
+		List<String> statements = new ArrayList<>();
+		try (SqlScriptReader reader = new SqlScriptReader(new StringReader(script))) {
+			String statement;
+			while ((statement = reader.readStatement()) != null) {
+				statements.add(statement);
+			}
+		}
+		return statements;
+	}
+}
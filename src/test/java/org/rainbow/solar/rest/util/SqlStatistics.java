@@ -0,0 +1,117 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * The database work done by the current thread while handling a request: the
+ * number of statements executed, the time spent executing them, the number of
+ * rows fetched and the time spent waiting for connections. It is only collected
+ * through a data source wrapped with {@link QueryCapture#wrap(DataSource)}, and
+ * is sent to the client in the headers of the response.
+ *
+ * @author biya-bi
+ *
+ */
+public class SqlStatistics {
+
+	public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+	public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+	public static final String TIME_HEADER = "X-SQL-Time-Micros";
+	public static final String ROWS_FETCHED_HEADER = "X-SQL-Rows-Fetched";
+	public static final String CONNECTION_WAIT_HEADER = "X-SQL-Connection-Wait-Micros";
+
+	private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+	private int statementCount;
+	private long elapsedNanos;
+	private long rowsFetched;
+	private long connectionWaitNanos;
+
+	/**
+	 * Starts collecting the statistics of the current thread.
+	 */
+	public static void start() {
+		CURRENT.set(new SqlStatistics());
+	}
+
+	/**
+	 * Stops collecting the statistics of the current thread.
+	 *
+	 * @return the statistics collected since {@link #start()}.
+	 */
+	public static SqlStatistics stop() {
+		SqlStatistics statistics = CURRENT.get();
+		CURRENT.remove();
+		if (statistics == null) {
+			throw new IllegalStateException("No statistics were started on this thread.");
+		}
+		return statistics;
+	}
+
+	/**
+	 * Reads the statistics a request left in the headers of its response.
+	 */
+	public static SqlStatistics of(HttpHeaders headers) {
+		Objects.requireNonNull(headers, "The headers argument cannot be null.");
+
+		if (headers.getFirst(STATEMENT_COUNT_HEADER) == null) {
+			throw new IllegalArgumentException("The headers do not contain SQL statistics.");
+		}
+		SqlStatistics statistics = new SqlStatistics();
+		statistics.statementCount = Integer.parseInt(headers.getFirst(STATEMENT_COUNT_HEADER));
+		statistics.elapsedNanos = TimeUnit.MICROSECONDS.toNanos(Long.parseLong(headers.getFirst(TIME_HEADER)));
+		statistics.rowsFetched = Long.parseLong(headers.getFirst(ROWS_FETCHED_HEADER));
+		statistics.connectionWaitNanos = TimeUnit.MICROSECONDS
+				.toNanos(Long.parseLong(headers.getFirst(CONNECTION_WAIT_HEADER)));
+		return statistics;
+	}
+
+	// Null if no statistics are collected on the current thread.
+	static SqlStatistics current() {
+		return CURRENT.get();
+	}
+
+	void statementExecuted(long nanos) {
+		statementCount++;
+		elapsedNanos += nanos;
+	}
+
+	void rowFetched() {
+		rowsFetched++;
+	}
+
+	void connectionAcquired(long nanos) {
+		connectionWaitNanos += nanos;
+	}
+
+	public int getStatementCount() {
+		return statementCount;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public long getRowsFetched() {
+		return rowsFetched;
+	}
+
+	public long getConnectionWaitNanos() {
+		return connectionWaitNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d statements in %d us, %d rows fetched, %d us waiting for connections",
+				statementCount, TimeUnit.NANOSECONDS.toMicros(elapsedNanos), rowsFetched,
+				TimeUnit.NANOSECONDS.toMicros(connectionWaitNanos));
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ *
+ */
+package org.rainbow.solar.rest.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records how long each phase of the test suite startup took, so that the cost
+ * of starting the suite can be tracked over time.
+ *
+ * @author biya-bi
+ *
+ */
+public class StartupTimings {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimings.class);
+
+	private static final Map<String, Long> TIMINGS = Collections.synchronizedMap(new LinkedHashMap<>());
+
+	public static void record(String phase, long nanos) {
+		Objects.requireNonNull(phase, "The phase argument cannot be null.");
+
+		TIMINGS.put(phase, nanos);
+		LOGGER.info(String.format("Startup phase '%s' took %d ms", phase, nanos / 1_000_000));
+	}
+
+	/**
+	 * @return the duration in nanoseconds of each recorded phase, in the order the
+	 *         phases were recorded.
+	 */
+	public static Map<String, Long> getTimings() {
+		synchronized (TIMINGS) {
+			return Collections.unmodifiableMap(new LinkedHashMap<>(TIMINGS));
+		}
+	}
+}